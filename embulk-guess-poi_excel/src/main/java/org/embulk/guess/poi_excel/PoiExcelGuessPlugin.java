@@ -0,0 +1,143 @@
+package org.embulk.guess.poi_excel;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.embulk.config.ConfigDiff;
+import org.embulk.config.ConfigSource;
+import org.embulk.parser.poi_excel.PoiExcelParserPlugin;
+import org.embulk.parser.poi_excel.PoiExcelSpilledInput;
+import org.embulk.parser.poi_excel.reader.PoiExcelHssfStreamingReader;
+import org.embulk.parser.poi_excel.reader.PoiExcelStreamingReader;
+import org.embulk.parser.poi_excel.reader.PoiExcelXssfStreamingReader;
+import org.embulk.parser.poi_excel.reader.SharedStringsStore;
+import org.embulk.spi.Buffer;
+import org.embulk.spi.GuessPlugin;
+import org.embulk.util.config.ConfigMapperFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * guess of poi_excel parser.
+ * <p>
+ * only the first <b>guess_sample_rows</b> rows of the sheets are read by the streaming reader (xlsx: SAX, xls: event
+ * model), so the workbook is not loaded. the header row (skip_header_lines), the column names and the column types
+ * (boolean, long, double, timestamp of date formatted cells, string) are guessed. xls/xlsx cannot be read from a part
+ * of the file, so the sample buffer (exec: sample_buffer_bytes) must contain the whole file.
+ * </p>
+ * <p>
+ * this is the main class of embulk-guess-poi_excel (exec: guess_plugins: [poi_excel]).
+ * </p>
+ */
+public class PoiExcelGuessPlugin implements GuessPlugin {
+	private static final Logger logger = LoggerFactory.getLogger(PoiExcelGuessPlugin.class);
+	private static final ConfigMapperFactory CONFIG_MAPPER_FACTORY = ConfigMapperFactory.builder().addDefaultModules().build();
+
+	public static final int DEFAULT_SAMPLE_ROWS = 100;
+
+	@Override
+	public ConfigDiff guess(ConfigSource config, Buffer sample) {
+		ConfigSource parserConfig = config.getNestedOrGetEmpty("parser");
+		String type = parserConfig.get(String.class, "type", PoiExcelParserPlugin.TYPE);
+		if (!type.equals(PoiExcelParserPlugin.TYPE)) {
+			return CONFIG_MAPPER_FACTORY.newConfigDiff();
+		}
+
+		String tempDir = parserConfig.get(String.class, "temp_dir", null);
+		try (PoiExcelSpilledInput spilled = PoiExcelSpilledInput.spill(sample, tempDir)) {
+			return guess(parserConfig, spilled.getFile(), spilled.getFileMagic());
+		}
+	}
+
+	/**
+	 * @param parserConfig parser config
+	 * @param file         Excel file
+	 * @param magic        type of the file
+	 * @return config diff which contains parser
+	 */
+	public ConfigDiff guess(ConfigSource parserConfig, File file, FileMagic magic) {
+		ConfigDiff diff = CONFIG_MAPPER_FACTORY.newConfigDiff();
+
+		PoiExcelStreamingReader reader;
+		try {
+			reader = newPoiExcelStreamingReader(parserConfig, file, magic);
+		} catch (RuntimeException e) {
+			logger.warn("guess failed. the sample may not contain the whole file (exec: sample_buffer_bytes)", e);
+			return diff;
+		}
+		if (reader == null) {
+			logger.debug("not Excel file. magic={}", magic);
+			return diff;
+		}
+
+		int sampleRows = parserConfig.get(Integer.class, "guess_sample_rows", DEFAULT_SAMPLE_ROWS);
+		PoiExcelGuessSampler sampler = new PoiExcelGuessSampler(sampleRows);
+		List<String> sheetNames;
+		try {
+			sheetNames = getSheetNames(parserConfig, reader);
+			for (String sheetName : sheetNames) {
+				if (sampler.isFull()) {
+					break;
+				}
+				if (reader.getSheetIndex(sheetName) < 0) {
+					continue;
+				}
+				reader.readSheet(sheetName, sampler);
+				sampler.endSheet();
+			}
+		} catch (RuntimeException e) {
+			logger.warn("guess failed. the sample may not contain the whole file (exec: sample_buffer_bytes)", e);
+			return diff;
+		} finally {
+			reader.close();
+		}
+
+		ConfigDiff parser = CONFIG_MAPPER_FACTORY.newConfigDiff();
+		parser.set("type", PoiExcelParserPlugin.TYPE);
+		if (!parserConfig.has("sheet") && !parserConfig.has("sheets") && !sheetNames.isEmpty()) {
+			parser.set("sheet", sheetNames.get(0));
+		}
+		parser.set("skip_header_lines", sampler.getSkipHeaderLines());
+		parser.set("columns", sampler.getColumns());
+		diff.setNested("parser", parser);
+		return diff;
+	}
+
+	protected PoiExcelStreamingReader newPoiExcelStreamingReader(ConfigSource parserConfig, File file,
+			FileMagic magic) {
+		switch (magic) {
+		case OOXML:
+			String sharedStrings = parserConfig.get(String.class, "shared_strings", "memory");
+			String tempDir = parserConfig.get(String.class, "temp_dir", null);
+			return new PoiExcelXssfStreamingReader(file, SharedStringsStore.of(sharedStrings), tempDir);
+		case OLE2:
+			return new PoiExcelHssfStreamingReader(file);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * @return sheet names of sheet and sheets. the first sheet of the workbook if not specified
+	 */
+	protected List<String> getSheetNames(ConfigSource parserConfig, PoiExcelStreamingReader reader) {
+		List<String> names = new ArrayList<>();
+		String sheet = parserConfig.get(String.class, "sheet", null);
+		if (sheet != null) {
+			names.add(sheet);
+		}
+		if (parserConfig.has("sheets")) {
+			for (Object name : parserConfig.get(List.class, "sheets")) {
+				names.add(name.toString());
+			}
+		}
+
+		List<String> workbookSheetNames = reader.getSheetNames();
+		if (names.isEmpty()) {
+			return workbookSheetNames.isEmpty() ? names : workbookSheetNames.subList(0, 1);
+		}
+		return PoiExcelParserPlugin.resolveSheetName(workbookSheetNames, names);
+	}
+}
@@ -0,0 +1,262 @@
+package org.embulk.guess.poi_excel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.CellReference;
+import org.embulk.parser.poi_excel.reader.PoiExcelStreamingCell;
+import org.embulk.parser.poi_excel.reader.PoiExcelStreamingRow;
+import org.embulk.parser.poi_excel.reader.PoiExcelStreamingRowHandler;
+
+/**
+ * collects the first rows of the sheets at reader=streaming, and guesses the header row and the column types.
+ * <p>
+ * the header is decided by the first sheet. the first non-empty row is the header if all its cells are strings, and
+ * the rows below have a non-string value in one of the columns (or no value of the first row appears again in its
+ * column when all values are strings). the header lines are also skipped at the following sheets.
+ * </p>
+ */
+public class PoiExcelGuessSampler implements PoiExcelStreamingRowHandler {
+
+	public static enum GuessType {
+		BOOLEAN, LONG, DOUBLE, TIMESTAMP, STRING;
+
+		// integral values below this are exact in double and in long
+		private static final double LONG_LIMIT = 1e15;
+
+		public String getName() {
+			return name().toLowerCase();
+		}
+
+		/**
+		 * @return type of the cell. null if blank or error
+		 */
+		public static GuessType of(PoiExcelStreamingCell cell) {
+			CellType cellType = cell.getCellType();
+			if (cellType == CellType.FORMULA) {
+				cellType = cell.getCachedFormulaResultType();
+			}
+			switch (cellType) {
+			case NUMERIC:
+				if (cell.isDateFormatted()) {
+					return TIMESTAMP;
+				}
+				double value = cell.getNumericCellValue();
+				if (value == Math.rint(value) && Math.abs(value) < LONG_LIMIT) {
+					return LONG;
+				}
+				return DOUBLE;
+			case STRING:
+				return cell.getStringCellValue().trim().isEmpty() ? null : STRING;
+			case BOOLEAN:
+				return BOOLEAN;
+			default:
+				return null;
+			}
+		}
+
+		public static GuessType merge(GuessType a, GuessType b) {
+			if (a == null) {
+				return b;
+			}
+			if (b == null || a == b) {
+				return a;
+			}
+			if ((a == LONG && b == DOUBLE) || (a == DOUBLE && b == LONG)) {
+				return DOUBLE;
+			}
+			return STRING;
+		}
+	}
+
+	private static class SampleRow {
+		final int rowIndex;
+		final GuessType[] types;
+		final String[] strings;
+
+		SampleRow(int rowIndex, int size) {
+			this.rowIndex = rowIndex;
+			this.types = new GuessType[size];
+			this.strings = new String[size];
+		}
+
+		GuessType getType(int columnIndex) {
+			return (columnIndex < types.length) ? types[columnIndex] : null;
+		}
+
+		String getString(int columnIndex) {
+			return (columnIndex < strings.length) ? strings[columnIndex] : null;
+		}
+	}
+
+	private final int maxRows;
+	private final List<SampleRow> rows = new ArrayList<>();
+	private int readRows = 0;
+
+	private boolean headerDecided = false;
+	private String[] header = null;
+	private int skipHeaderLines = 0;
+
+	/**
+	 * @param maxRows number of the rows to read (including the header)
+	 */
+	public PoiExcelGuessSampler(int maxRows) {
+		this.maxRows = maxRows;
+	}
+
+	public boolean isFull() {
+		return readRows >= maxRows;
+	}
+
+	@Override
+	public boolean handleRow(PoiExcelStreamingRow row) {
+		if (isFull()) {
+			return false;
+		}
+		int rowIndex = row.getRowIndex();
+		if (rowIndex < skipHeaderLines) {
+			return true;
+		}
+		readRows++;
+
+		int size = row.getLastCellNum();
+		SampleRow sample = new SampleRow(rowIndex, size);
+		boolean empty = true;
+		for (int i = 0; i < size; i++) {
+			PoiExcelStreamingCell cell = row.getCell(i);
+			if (cell == null) {
+				continue;
+			}
+			GuessType type = GuessType.of(cell);
+			if (type != null) {
+				sample.types[i] = type;
+				if (type == GuessType.STRING) {
+					sample.strings[i] = cell.getStringCellValue().trim();
+				}
+				empty = false;
+			}
+		}
+		if (!empty) {
+			rows.add(sample);
+		}
+
+		// stop reading the sheet
+		return !isFull();
+	}
+
+	/**
+	 * called after each sheet. the header is decided at the first sheet.
+	 */
+	public void endSheet() {
+		if (headerDecided || rows.isEmpty()) {
+			return;
+		}
+		this.headerDecided = true;
+
+		SampleRow first = rows.get(0);
+		if (isHeader(first)) {
+			this.header = first.strings;
+			this.skipHeaderLines = first.rowIndex + 1;
+			rows.remove(0);
+		} else {
+			this.skipHeaderLines = first.rowIndex;
+		}
+	}
+
+	private boolean isHeader(SampleRow first) {
+		if (rows.size() < 2) {
+			return false;
+		}
+		for (int i = 0; i < first.types.length; i++) {
+			GuessType type = first.types[i];
+			if (type != null && type != GuessType.STRING) {
+				return false;
+			}
+		}
+
+		boolean hasData = false;
+		for (int i = 0; i < first.types.length; i++) {
+			if (first.types[i] == null) {
+				continue;
+			}
+			GuessType dataType = getDataType(i, 1);
+			if (dataType == null) {
+				continue;
+			}
+			if (dataType != GuessType.STRING) {
+				return true;
+			}
+			hasData = true;
+		}
+		if (!hasData) {
+			return false;
+		}
+
+		// all values are strings: the header name does not appear in the data
+		for (int i = 0; i < first.strings.length; i++) {
+			String name = first.strings[i];
+			if (name == null) {
+				continue;
+			}
+			for (int r = 1; r < rows.size(); r++) {
+				if (name.equals(rows.get(r).getString(i))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private GuessType getDataType(int columnIndex, int fromRow) {
+		GuessType result = null;
+		for (int r = fromRow; r < rows.size(); r++) {
+			result = GuessType.merge(result, rows.get(r).getType(columnIndex));
+		}
+		return result;
+	}
+
+	public int getSkipHeaderLines() {
+		return skipHeaderLines;
+	}
+
+	/**
+	 * @return columns of the config. the columns without any value are omitted
+	 */
+	public List<Map<String, Object>> getColumns() {
+		int size = (header != null) ? header.length : 0;
+		for (SampleRow row : rows) {
+			size = Math.max(size, row.types.length);
+		}
+
+		List<Map<String, Object>> columns = new ArrayList<>();
+		Set<String> names = new HashSet<>();
+		for (int i = 0; i < size; i++) {
+			String name = (header != null && i < header.length) ? header[i] : null;
+			GuessType type = getDataType(i, 0);
+			if (name == null && type == null) {
+				continue;
+			}
+
+			String columnNumber = CellReference.convertNumToColString(i);
+			if (name == null) {
+				name = columnNumber;
+			}
+			String uniqueName = name;
+			for (int n = 2; !names.add(uniqueName); n++) {
+				uniqueName = name + "_" + n;
+			}
+
+			Map<String, Object> column = new LinkedHashMap<>();
+			column.put("name", uniqueName);
+			column.put("type", (type != null) ? type.getName() : GuessType.STRING.getName());
+			column.put("column_number", columnNumber);
+			columns.add(column);
+		}
+		return columns;
+	}
+}
@@ -0,0 +1,131 @@
+package org.embulk.guess.poi_excel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.embulk.config.ConfigDiff;
+import org.embulk.config.ConfigSource;
+import org.embulk.parser.poi_excel.PoiExcelParserPlugin;
+import org.embulk.spi.Buffer;
+import org.embulk.spi.GuessPlugin;
+import org.embulk.test.TestingEmbulk;
+import org.embulk.util.config.ConfigMapperFactory;
+import org.junit.Rule;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+@RunWith(Theories.class)
+public class TestPoiExcelGuessPlugin {
+
+	@DataPoints
+	public static String[] FILES = { "test1.xls", "test2.xlsx" };
+
+	@Rule
+	public TestingEmbulk embulk = TestingEmbulk.builder()
+			.registerPlugin(GuessPlugin.class, PoiExcelParserPlugin.TYPE, PoiExcelGuessPlugin.class).build();
+
+	@Theory
+	@SuppressWarnings("unchecked")
+	public void testGuess(String excelFile) throws IOException, URISyntaxException {
+		File file = new File(getClass().getResource(excelFile).toURI());
+
+		ConfigSource config = ConfigMapperFactory.builder().addDefaultModules().build().newConfigSource();
+		config.set("sheet", "test1");
+		config.set("guess_sample_rows", 3);
+
+		ConfigDiff diff = new PoiExcelGuessPlugin().guess(config, file, FileMagic.valueOf(file));
+		ConfigDiff parser = diff.getNested("parser");
+		assertThat(parser.get(String.class, "type"), is(PoiExcelParserPlugin.TYPE));
+		assertThat(parser.has("sheet"), is(false));
+		assertThat(parser.get(Integer.class, "skip_header_lines"), is(1));
+
+		List<Map<String, Object>> columns = parser.get(List.class, "columns");
+		assertThat(columns.size(), is(6));
+		checkColumn(columns.get(0), "boolean", "boolean", "A");
+		checkColumn(columns.get(1), "long", "long", "B");
+		checkColumn(columns.get(2), "double", "double", "C");
+		checkColumn(columns.get(3), "string", "string", "D");
+		checkColumn(columns.get(4), "timestamp", "timestamp", "E");
+		checkColumn(columns.get(5), "G", "string", "G");
+	}
+
+	@Theory
+	public void testGuess_firstSheet(String excelFile) throws IOException, URISyntaxException {
+		File file = new File(getClass().getResource(excelFile).toURI());
+
+		ConfigSource config = ConfigMapperFactory.builder().addDefaultModules().build().newConfigSource();
+
+		ConfigDiff diff = new PoiExcelGuessPlugin().guess(config, file, FileMagic.valueOf(file));
+		ConfigDiff parser = diff.getNested("parser");
+		assertThat(parser.get(String.class, "sheet"), is("test1"));
+		assertThat(parser.get(Integer.class, "skip_header_lines"), is(1));
+	}
+
+	@Theory
+	@SuppressWarnings("deprecation")
+	public void testGuess_buffer(String excelFile) throws IOException, URISyntaxException {
+		File file = new File(getClass().getResource(excelFile).toURI());
+		byte[] bytes = Files.readAllBytes(file.toPath());
+
+		ConfigMapperFactory factory = ConfigMapperFactory.builder().addDefaultModules().build();
+		ConfigSource parserConfig = factory.newConfigSource();
+		parserConfig.set("type", PoiExcelParserPlugin.TYPE);
+		parserConfig.set("temp_dir", System.getProperty("java.io.tmpdir"));
+		ConfigSource config = factory.newConfigSource();
+		config.setNested("parser", parserConfig);
+
+		{
+			ConfigDiff diff = new PoiExcelGuessPlugin().guess(config, Buffer.wrap(bytes));
+			ConfigDiff parser = diff.getNested("parser");
+			assertThat(parser.get(String.class, "type"), is(PoiExcelParserPlugin.TYPE));
+			assertThat(parser.get(String.class, "sheet"), is("test1"));
+			assertThat(parser.get(Integer.class, "skip_header_lines"), is(1));
+		}
+		{
+			// the sample does not contain the whole file
+			ConfigDiff diff = new PoiExcelGuessPlugin().guess(config, Buffer.wrap(bytes, 0, 3000));
+			assertThat(diff.isEmpty(), is(true));
+		}
+	}
+
+	@Theory
+	@SuppressWarnings("unchecked")
+	public void testGuess_embulk(String excelFile) throws URISyntaxException {
+		ConfigSource exec = embulk.newConfig();
+		exec.set("guess_plugins", Arrays.asList(PoiExcelParserPlugin.TYPE));
+		exec.set("exclude_guess_plugins", Arrays.asList("gzip", "bzip2", "json", "csv"));
+		exec.set("sample_buffer_bytes", 1024 * 1024);
+
+		ConfigSource seed = embulk.newConfig();
+		seed.set("type", PoiExcelParserPlugin.TYPE);
+		seed.set("guess_sample_rows", 3);
+
+		ConfigDiff parser = embulk.parserBuilder().parser(seed).exec(exec)
+				.inputPath(Paths.get(getClass().getResource(excelFile).toURI())).guess();
+		assertThat(parser.get(String.class, "type"), is(PoiExcelParserPlugin.TYPE));
+		assertThat(parser.get(String.class, "sheet"), is("test1"));
+		assertThat(parser.get(Integer.class, "skip_header_lines"), is(1));
+
+		List<Map<String, Object>> columns = parser.get(List.class, "columns");
+		checkColumn(columns.get(0), "boolean", "boolean", "A");
+		checkColumn(columns.get(4), "timestamp", "timestamp", "E");
+	}
+
+	private static void checkColumn(Map<String, Object> column, String name, String type, String columnNumber) {
+		assertThat((String) column.get("name"), is(name));
+		assertThat((String) column.get("type"), is(type));
+		assertThat((String) column.get("column_number"), is(columnNumber));
+	}
+}
@@ -0,0 +1,81 @@
+package org.embulk.parser.poi_excel;
+
+import org.embulk.parser.poi_excel.bean.PoiExcelSheetBean;
+import org.embulk.parser.poi_excel.visitor.PoiExcelColumnVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * skip_empty_rows and stop_on_blank_rows of a sheet.
+ * <p>
+ * a record is empty if all cells of the record referenced by the columns are missing or blank, which is checked
+ * before the columns are visited. the missing records (rows not written in the file) between the records are also
+ * counted as blank for stop_on_blank_rows.
+ * </p>
+ */
+public class PoiExcelEmptyRecordFilter {
+	private static final Logger logger = LoggerFactory.getLogger(PoiExcelEmptyRecordFilter.class);
+
+	public static enum Action {
+		VISIT, SKIP, STOP
+	}
+
+	private final PoiExcelColumnVisitor visitor;
+	private final boolean skipEmpty;
+	private final int stopCount;
+
+	// index of the last non-empty record
+	private int lastIndex;
+	private long skippedCount = 0;
+
+	public PoiExcelEmptyRecordFilter(PoiExcelSheetBean sheetBean, PoiExcelColumnVisitor visitor, int startIndex) {
+		this(visitor, sheetBean.isSkipEmptyRows(), sheetBean.getStopOnBlankRows(), startIndex);
+	}
+
+	/**
+	 * @param stopCount  0 means no stop
+	 * @param startIndex index of the first record
+	 */
+	public PoiExcelEmptyRecordFilter(PoiExcelColumnVisitor visitor, boolean skipEmpty, int stopCount, int startIndex) {
+		this.visitor = visitor;
+		this.skipEmpty = skipEmpty;
+		this.stopCount = stopCount;
+		this.lastIndex = startIndex - 1;
+	}
+
+	public boolean isEnabled() {
+		return skipEmpty || stopCount > 0;
+	}
+
+	/**
+	 * @param index index of the current record of the visitor
+	 */
+	public Action check(int index) {
+		if (!isEnabled()) {
+			return Action.VISIT;
+		}
+
+		boolean empty = visitor.isEmptyRecord();
+		if (stopCount > 0) {
+			long blankCount = (long) index - lastIndex - (empty ? 0 : 1);
+			if (blankCount >= stopCount) {
+				logger.debug("stop_on_blank_rows={} reached at index={}", stopCount, index);
+				return Action.STOP;
+			}
+		}
+
+		if (!empty) {
+			this.lastIndex = index;
+			return Action.VISIT;
+		}
+		if (skipEmpty) {
+			skippedCount++;
+			return Action.SKIP;
+		}
+		return Action.VISIT;
+	}
+
+	public long getSkippedCount() {
+		return skippedCount;
+	}
+}
@@ -0,0 +1,64 @@
+package org.embulk.parser.poi_excel;
+
+import org.embulk.spi.PageBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * adds records to {@link PageBuilder} and flushes the page by the flush policy.
+ * <p>
+ * {@link PageBuilder} flushes a page when its buffer is full, so by default the pages are flushed only by size. the
+ * page is also flushed when <b>flush_count</b> records are added after the last flush (upper bound of the records of
+ * a page), or when <b>flush_interval_millis</b> passed after the last flush (upper bound of the latency).
+ * </p>
+ * <p>
+ * "the last flush" is the last {@link #flush()} of this class. the flush which {@link PageBuilder} does by itself
+ * when its page is full is not seen here, so the count is not reset by it, and the next page may be flushed before
+ * it has <b>flush_count</b> records. the records and their order are not changed by the flushes.
+ * </p>
+ */
+public class PoiExcelPageFlusher {
+	private static final Logger logger = LoggerFactory.getLogger(PoiExcelPageFlusher.class);
+
+	private final PageBuilder pageBuilder;
+	private final int flushCount;
+	private final long flushIntervalNanos;
+
+	private int count = 0;
+	private long lastFlushTime;
+
+	/**
+	 * @param flushCount          0 or less means no limit
+	 * @param flushIntervalMillis 0 or less means no limit
+	 */
+	public PoiExcelPageFlusher(PageBuilder pageBuilder, int flushCount, long flushIntervalMillis) {
+		this.pageBuilder = pageBuilder;
+		this.flushCount = flushCount;
+		this.flushIntervalNanos = flushIntervalMillis * 1000_000L;
+		this.lastFlushTime = (flushIntervalNanos > 0) ? System.nanoTime() : 0;
+	}
+
+	public PoiExcelPageFlusher(PageBuilder pageBuilder, PoiExcelParserPlugin.PluginTask task) {
+		this(pageBuilder, task.getFlushCount().orElse(0), task.getFlushIntervalMillis());
+	}
+
+	public void addRecord() {
+		pageBuilder.addRecord();
+
+		if (flushCount > 0 && ++count >= flushCount) {
+			logger.trace("flush by flush_count");
+			flush();
+		} else if (flushIntervalNanos > 0 && System.nanoTime() - lastFlushTime >= flushIntervalNanos) {
+			logger.trace("flush by flush_interval_millis");
+			flush();
+		}
+	}
+
+	public void flush() {
+		pageBuilder.flush();
+		this.count = 0;
+		if (flushIntervalNanos > 0) {
+			this.lastFlushTime = System.nanoTime();
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package org.embulk.parser.poi_excel;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.embulk.spi.Buffer;
+import org.embulk.spi.Page;
+import org.embulk.spi.PageOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link PageOutput} which counts the pages and how full they are.
+ */
+public class PoiExcelPageStatisticsOutput implements PageOutput {
+	private static final Logger logger = LoggerFactory.getLogger(PoiExcelPageStatisticsOutput.class);
+
+	private final PageOutput output;
+
+	private final AtomicLong pageCount = new AtomicLong();
+	private final AtomicLong usedBytes = new AtomicLong();
+	private final AtomicLong capacityBytes = new AtomicLong();
+
+	public PoiExcelPageStatisticsOutput(PageOutput output) {
+		this.output = output;
+	}
+
+	@Override
+	public void add(Page page) {
+		Buffer buffer = page.buffer();
+		pageCount.incrementAndGet();
+		usedBytes.addAndGet(buffer.limit());
+		capacityBytes.addAndGet(buffer.capacity());
+		output.add(page);
+	}
+
+	@Override
+	public void finish() {
+		output.finish();
+	}
+
+	@Override
+	public void close() {
+		output.close();
+	}
+
+	public long getPageCount() {
+		return pageCount.get();
+	}
+
+	public long getUsedBytes() {
+		return usedBytes.get();
+	}
+
+	public long getCapacityBytes() {
+		return capacityBytes.get();
+	}
+
+	public void log() {
+		long pages = getPageCount();
+		if (pages == 0) {
+			return;
+		}
+		long used = getUsedBytes();
+		long capacity = getCapacityBytes();
+		logger.info("page statistics. pages={}, bytes={}, average bytes={}, fill={}%", pages, used, used / pages,
+				(capacity > 0) ? used * 100 / capacity : 0);
+	}
+}
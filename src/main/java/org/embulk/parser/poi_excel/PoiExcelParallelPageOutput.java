@@ -0,0 +1,99 @@
+package org.embulk.parser.poi_excel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.embulk.spi.Page;
+import org.embulk.spi.PageOutput;
+
+/**
+ * merges the pages of the parts which are processed concurrently into one {@link PageOutput}.
+ * <p>
+ * a part is a sheet (sheet_parallelism) or a row range of a sheet (row_parallelism). if preserveOrder, the pages of a
+ * part are held until all previous parts are finished.
+ * </p>
+ */
+public class PoiExcelParallelPageOutput {
+
+	private final PageOutput output;
+	private final boolean preserveOrder;
+
+	private final List<List<Page>> pendingPages = new ArrayList<>();
+	private final List<Boolean> finished = new ArrayList<>();
+	private int head = 0;
+	private boolean aborted = false;
+
+	public PoiExcelParallelPageOutput(PageOutput output, boolean preserveOrder) {
+		this.output = output;
+		this.preserveOrder = preserveOrder;
+	}
+
+	/**
+	 * @param partNumber 0 origin. call in the order of parts
+	 * @return output of the part. finish() and close() do nothing (use {@link #finishPart(int)})
+	 */
+	public synchronized PageOutput newPartOutput(final int partNumber) {
+		while (pendingPages.size() <= partNumber) {
+			pendingPages.add(new ArrayList<Page>());
+			finished.add(false);
+		}
+		return new PageOutput() {
+
+			@Override
+			public void add(Page page) {
+				addPage(partNumber, page);
+			}
+
+			@Override
+			public void finish() {
+				// do nothing
+			}
+
+			@Override
+			public void close() {
+				// do nothing
+			}
+		};
+	}
+
+	protected synchronized void addPage(int partNumber, Page page) {
+		if (aborted) {
+			page.release();
+		} else if (!preserveOrder || partNumber == head) {
+			output.add(page);
+		} else {
+			pendingPages.get(partNumber).add(page);
+		}
+	}
+
+	public synchronized void finishPart(int partNumber) {
+		finished.set(partNumber, true);
+		if (!preserveOrder || aborted) {
+			return;
+		}
+
+		while (head < finished.size() && finished.get(head)) {
+			head++;
+			if (head < pendingPages.size()) {
+				List<Page> pages = pendingPages.get(head);
+				for (Page page : pages) {
+					output.add(page);
+				}
+				pages.clear();
+			}
+		}
+	}
+
+	/**
+	 * release the pages which are not output, and discard the following pages (on error).
+	 */
+	public synchronized void abort() {
+		this.aborted = true;
+		for (List<Page> pages : pendingPages) {
+			for (Page page : pages) {
+				page.release();
+			}
+			pages.clear();
+		}
+	}
+}
@@ -1,18 +1,24 @@
 package org.embulk.parser.poi_excel;
 
-import java.io.IOException;
+import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 import java.util.Optional;
 
-import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
 
 import org.embulk.config.ConfigException;
 import org.embulk.config.ConfigSource;
@@ -20,10 +26,19 @@ import org.embulk.config.TaskSource;
 import org.embulk.util.config.*;
 import org.embulk.spi.*;
 
-import org.embulk.util.file.FileInputInputStream;
-
+import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
 import org.embulk.parser.poi_excel.bean.PoiExcelSheetBean;
 import org.embulk.parser.poi_excel.bean.record.PoiExcelRecord;
+import org.embulk.parser.poi_excel.bean.record.PoiExcelRecordRowRange;
+import org.embulk.parser.poi_excel.bean.record.PoiExcelRecordStreamingRow;
+import org.embulk.parser.poi_excel.bean.record.RecordType;
+import org.embulk.parser.poi_excel.reader.PoiExcelHssfStreamingReader;
+import org.embulk.parser.poi_excel.reader.PoiExcelStreamingReader;
+import org.embulk.parser.poi_excel.reader.PoiExcelStreamingRow;
+import org.embulk.parser.poi_excel.reader.PoiExcelStreamingRowHandler;
+import org.embulk.parser.poi_excel.reader.PoiExcelXssfStreamingReader;
+import org.embulk.parser.poi_excel.reader.ReaderType;
+import org.embulk.parser.poi_excel.reader.SharedStringsStore;
 import org.embulk.parser.poi_excel.visitor.PoiExcelColumnVisitor;
 import org.embulk.parser.poi_excel.visitor.PoiExcelVisitorFactory;
 import org.embulk.parser.poi_excel.visitor.PoiExcelVisitorValue;
@@ -64,9 +79,72 @@ public class PoiExcelParserPlugin implements ParserPlugin {
 		@Config("columns")
 		SchemaConfig getColumns();
 
+		/**
+		 * @return upper bound of the records of a page, counted from the last flush by flush_count or
+		 *         flush_interval_millis. the page is flushed when it is full by default
+		 */
 		@Config("flush_count")
-		@ConfigDefault("100")
-		int getFlushCount();
+		@ConfigDefault("null")
+		Optional<Integer> getFlushCount();
+
+		/**
+		 * @return upper bound of the time from the last flush. 0 means no limit
+		 */
+		@Config("flush_interval_millis")
+		@ConfigDefault("0")
+		long getFlushIntervalMillis();
+
+		/**
+		 * @see ReaderType
+		 * @return reader
+		 */
+		@Config("reader")
+		@ConfigDefault("\"user_model\"")
+		String getReader();
+
+		/**
+		 * @see SharedStringsStore
+		 * @return shared strings store
+		 */
+		@Config("shared_strings")
+		@ConfigDefault("\"memory\"")
+		String getSharedStrings();
+
+		/**
+		 * @return directory of temporary file. empty means Embulk's temporary file space
+		 */
+		@Config("temp_dir")
+		@ConfigDefault("null")
+		Optional<String> getTempDir();
+
+		/**
+		 * @return the input file larger than this is spilled to temporary file (reader=user_model)
+		 */
+		@Config("spill_threshold_bytes")
+		@ConfigDefault("33554432")
+		long getSpillThresholdBytes();
+
+		/**
+		 * @return number of sheets processed concurrently (reader=user_model)
+		 */
+		@Config("sheet_parallelism")
+		@ConfigDefault("1")
+		int getSheetParallelism();
+
+		@Config("preserve_sheet_order")
+		@ConfigDefault("false")
+		boolean getPreserveSheetOrder();
+
+		/**
+		 * @return number of threads which convert the rows of a sheet (reader=user_model, record_type=row)
+		 */
+		@Config("row_parallelism")
+		@ConfigDefault("1")
+		int getRowParallelism();
+
+		@Config("row_chunk_size")
+		@ConfigDefault("10000")
+		int getRowChunkSize();
 
 		// From org.embulk.spi.time.TimestampParser.Task.
 		@Config("default_timezone")
@@ -93,6 +171,30 @@ public class PoiExcelParserPlugin implements ParserPlugin {
 		@Config("skip_header_lines")
 		@ConfigDefault("null")
 		Optional<Integer> getSkipHeaderLines();
+
+		// number(1 origin). record_type=row
+		@Config("start_row")
+		@ConfigDefault("null")
+		Optional<Integer> getStartRow();
+
+		// number(1 origin, inclusive). record_type=row
+		@Config("end_row")
+		@ConfigDefault("null")
+		Optional<Integer> getEndRow();
+
+		@Config("max_records")
+		@ConfigDefault("null")
+		Optional<Long> getMaxRecords();
+
+		// skip the records whose cells are all empty
+		@Config("skip_empty_rows")
+		@ConfigDefault("null")
+		Optional<Boolean> getSkipEmptyRows();
+
+		// end the sheet after the consecutive empty records
+		@Config("stop_on_blank_rows")
+		@ConfigDefault("null")
+		Optional<Integer> getStopOnBlankRows();
 	}
 
 	public interface SheetOptionTask extends Task, SheetCommonOptionTask {
@@ -208,25 +310,79 @@ public class PoiExcelParserPlugin implements ParserPlugin {
 			throw new ConfigException("Attribute sheets is required but not set");
 		}
 
-		try (FileInputInputStream is = new FileInputInputStream(input)) {
-			while (is.nextFile()) {
-				Workbook workbook;
-				try {
-					workbook = WorkbookFactory.create(is);
-				} catch (IOException | EncryptedDocumentException e) {
-					throw new RuntimeException(e);
-				}
+		ReaderType readerType = ReaderType.of(task.getReader());
+
+		// the zip needs random access, so the stream is saved to temporary file at reader=streaming.
+		long spillThreshold = (readerType == ReaderType.STREAMING) ? -1 : task.getSpillThresholdBytes();
+		String tempDir = task.getTempDir().orElse(null);
 
-				List<String> list = resolveSheetName(workbook, sheetNames);
-				if (logger.isDebugEnabled()) {
-					logger.debug("resolved sheet names={}", list);
+		PoiExcelPageStatisticsOutput statisticsOutput = new PoiExcelPageStatisticsOutput(output);
+		while (input.nextFile()) {
+			// the temporary file is deleted before the next file
+			try (PoiExcelSpilledInput spilled = PoiExcelSpilledInput.spill(input, spillThreshold, tempDir)) {
+				if (readerType == ReaderType.STREAMING) {
+					runStreaming(task, schema, spilled, sheetNames, statisticsOutput);
+				} else {
+					run(task, schema, spilled, sheetNames, statisticsOutput);
 				}
-				run(task, schema, workbook, list, output);
 			}
 		}
+		statisticsOutput.log();
+	}
+
+	protected void run(PluginTask task, Schema schema, PoiExcelSpilledInput spilled, List<String> sheetNames,
+			PageOutput output) {
+		// the workbook and its caches are released for each input file
+		try (PoiExcelWorkbookContext context = new PoiExcelWorkbookContext(spilled.createWorkbook())) {
+			List<String> list = resolveSheetName(context.getWorkbook(), sheetNames);
+			run(task, schema, context, list, output);
+		}
+	}
+
+	protected void runStreaming(PluginTask task, Schema schema, PoiExcelSpilledInput spilled,
+			List<String> sheetNames, PageOutput output) {
+		FileMagic magic = spilled.getFileMagic();
+		PoiExcelStreamingReader reader = newPoiExcelStreamingReader(task, spilled.getFile(), magic);
+		if (reader == null) {
+			logger.info("reader=streaming is not supported for {}. use reader=user_model", magic);
+			run(task, schema, spilled, sheetNames, output);
+			return;
+		}
+
+		try {
+			List<String> list = resolveSheetName(reader.getSheetNames(), sheetNames);
+			run(task, schema, reader, list, output);
+		} finally {
+			reader.close();
+		}
+	}
+
+	protected PoiExcelStreamingReader newPoiExcelStreamingReader(PluginTask task, File file, FileMagic magic) {
+		switch (magic) {
+		case OOXML:
+			return new PoiExcelXssfStreamingReader(file, SharedStringsStore.of(task.getSharedStrings()), task
+					.getTempDir().orElse(null));
+		case OLE2:
+			return new PoiExcelHssfStreamingReader(file);
+		default:
+			return null;
+		}
 	}
 
 	private List<String> resolveSheetName(Workbook workbook, List<String> sheetNames) {
+		List<String> names = new ArrayList<>();
+		for (Sheet sheet : workbook) {
+			names.add(sheet.getSheetName());
+		}
+		return resolveSheetName(names, sheetNames);
+	}
+
+	/**
+	 * @param workbookSheetNames sheet names of the workbook
+	 * @param sheetNames         sheet and sheets. "*" and "?" are wildcards
+	 * @return sheet names in the order of sheetNames
+	 */
+	public static List<String> resolveSheetName(List<String> workbookSheetNames, List<String> sheetNames) {
 		Set<String> set = new LinkedHashSet<>();
 		for (String s : sheetNames) {
 			if (s.contains("*") || s.contains("?")) {
@@ -260,8 +416,7 @@ public class PoiExcelParserPlugin implements ParserPlugin {
 					sb.append(Pattern.quote(buf.toString()));
 				}
 				String regex = sb.toString();
-				for (Sheet sheet : workbook) {
-					String name = sheet.getSheetName();
+				for (String name : workbookSheetNames) {
 					if (name.matches(regex)) {
 						set.add(name);
 					}
@@ -270,16 +425,258 @@ public class PoiExcelParserPlugin implements ParserPlugin {
 				set.add(s);
 			}
 		}
-		return new ArrayList<>(set);
+		List<String> list = new ArrayList<>(set);
+		if (logger.isDebugEnabled()) {
+			logger.debug("resolved sheet names={}", list);
+		}
+		return list;
 	}
 
-	protected void run(PluginTask task, Schema schema, Workbook workbook, List<String> sheetNames, PageOutput output) {
-		final int flushCount = task.getFlushCount();
+	protected void run(PluginTask task, Schema schema, PoiExcelWorkbookContext context, List<String> sheetNames,
+			PageOutput output) {
+		Workbook workbook = context.getWorkbook();
+		List<Sheet> sheets = new ArrayList<>(sheetNames.size());
+		for (String sheetName : sheetNames) {
+			Sheet sheet = workbook.getSheet(sheetName);
+			if (sheet == null) {
+				if (task.getIgnoreSheetNotFound()) {
+					logger.info("ignore: not found sheet={}", sheetName);
+					continue;
+				} else {
+					throw new RuntimeException(String.format("not found sheet=%s", sheetName));
+				}
+			}
+			sheets.add(sheet);
+		}
+
+		int parallelism = Math.min(task.getSheetParallelism(), sheets.size());
+		if (parallelism > 1) {
+			runParallel(task, schema, context, sheets, parallelism, output);
+			return;
+		}
 
-		try (PageBuilder pageBuilder = new PageBuilder(Exec.getBufferAllocator(), schema, output)) {
+		BufferAllocator allocator = Exec.getBufferAllocator();
+		try (PageBuilder pageBuilder = new PageBuilder(allocator, schema, output)) {
+			for (Sheet sheet : sheets) {
+				run(task, schema, context, sheet, allocator, pageBuilder, output);
+			}
+			pageBuilder.finish();
+		}
+	}
+
+	protected void runParallel(final PluginTask task, final Schema schema, final PoiExcelWorkbookContext context,
+			List<Sheet> sheets, int parallelism, PageOutput output) {
+		logger.info("sheet_parallelism={}, preserve_sheet_order={}", parallelism, task.getPreserveSheetOrder());
+
+		// Exec is not available on the worker threads
+		final BufferAllocator allocator = Exec.getBufferAllocator();
+		final PoiExcelParallelPageOutput parallelOutput = new PoiExcelParallelPageOutput(output,
+				task.getPreserveSheetOrder());
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			List<Future<?>> futures = new ArrayList<>(sheets.size());
+			for (int i = 0; i < sheets.size(); i++) {
+				final int sheetNumber = i;
+				final Sheet sheet = sheets.get(i);
+				final PageOutput sheetOutput = parallelOutput.newPartOutput(sheetNumber);
+				futures.add(executor.submit(new Runnable() {
+
+					@Override
+					@SuppressWarnings("deprecation")
+					public void run() {
+						// deprecated constructor: Exec.getPageBuilder() is not available on the worker threads
+						try (PageBuilder pageBuilder = new PageBuilder(allocator, schema, sheetOutput)) {
+							PoiExcelParserPlugin.this.run(task, schema, context, sheet, allocator, pageBuilder,
+									sheetOutput);
+							pageBuilder.finish();
+						}
+						parallelOutput.finishPart(sheetNumber);
+					}
+				}));
+			}
+
+			for (Future<?> future : futures) {
+				waitFor(future);
+			}
+		} catch (RuntimeException | Error e) {
+			executor.shutdownNow();
+			parallelOutput.abort();
+			throw e;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * @param pageBuilder used unless row_parallelism. flushed at the end of sheet
+	 * @param output      output of pageBuilder. used by row_parallelism
+	 */
+	protected void run(PluginTask task, Schema schema, PoiExcelWorkbookContext context, Sheet sheet,
+			BufferAllocator allocator, PageBuilder pageBuilder, PageOutput output) {
+		logger.info("sheet={}", sheet.getSheetName());
+		PoiExcelVisitorFactory factory = newPoiExcelVisitorFactory(task, schema, context, sheet, pageBuilder);
+		PoiExcelSheetBean sheetBean = factory.getVisitorValue().getSheetBean();
+
+		int rowParallelism = task.getRowParallelism();
+		// max_records and stop_on_blank_rows need the records in order
+		if (rowParallelism > 1 && sheetBean.getRecordType() == RecordType.ROW && sheetBean.getMaxRecords() < 0
+				&& sheetBean.getStopOnBlankRows() == 0) {
+			runRowRanges(task, schema, context, sheet, sheetBean, rowParallelism, allocator, output);
+		} else {
+			PoiExcelRecord record = sheetBean.getRecordType().newPoiExcelRecord();
+			run(task, schema, sheet, record, factory, pageBuilder);
+		}
+
+		logColumnCount(sheet.getSheetName(), sheetBean);
+	}
+
+	protected void logColumnCount(String sheetName, PoiExcelSheetBean sheetBean) {
+		for (PoiExcelColumnBean bean : sheetBean.getColumnBeans()) {
+			long cached = bean.getFormulaCachedCount();
+			long evaluated = bean.getFormulaEvaluatedCount();
+			if (cached + evaluated > 0) {
+				logger.info("formula_handling=cached_then_evaluate sheet={}, column={}, cached={}, evaluated={}",
+						sheetName, bean.getColumn().getName(), cached, evaluated);
+			}
+
+			long hit = bean.getTimestampCacheHitCount().get();
+			long miss = bean.getTimestampCacheMissCount().get();
+			if (hit + miss > 0) {
+				logger.info("timestamp parse cache sheet={}, column={}, hit={}, miss={}", sheetName,
+						bean.getColumn().getName(), hit, miss);
+			}
+		}
+	}
+
+	protected void run(PluginTask task, Schema schema, Sheet sheet, PoiExcelRecord record,
+			PoiExcelVisitorFactory factory, PageBuilder pageBuilder) {
+		PoiExcelPageFlusher flusher = new PoiExcelPageFlusher(pageBuilder, task);
+
+		PoiExcelColumnVisitor visitor = factory.getPoiExcelColumnVisitor();
+		PoiExcelSheetBean sheetBean = factory.getVisitorValue().getSheetBean();
+		final long maxRecords = sheetBean.getMaxRecords();
+
+		record.initialize(sheet, sheetBean.getRecordStartIndex(), sheetBean.getRecordEndIndex());
+		visitor.setRecord(record);
+		PoiExcelEmptyRecordFilter filter = new PoiExcelEmptyRecordFilter(sheetBean, visitor,
+				sheetBean.getRecordStartIndex());
+
+		long count = 0;
+		for (; record.exists(); record.moveNext()) {
+			if (maxRecords >= 0 && count >= maxRecords) {
+				logger.debug("max_records={} reached", maxRecords);
+				break;
+			}
+			PoiExcelEmptyRecordFilter.Action action = filter.check(record.getRecordIndex());
+			if (action == PoiExcelEmptyRecordFilter.Action.STOP) {
+				break;
+			}
+			if (action == PoiExcelEmptyRecordFilter.Action.SKIP) {
+				continue;
+			}
+			count++;
+			record.logStart();
+
+			visitor.visitRecord(); // use record
+			flusher.addRecord();
+
+			record.logEnd();
+		}
+		flusher.flush();
+
+		if (filter.getSkippedCount() > 0) {
+			logger.info("skip_empty_rows sheet={}, skipped={}", sheet.getSheetName(), filter.getSkippedCount());
+		}
+	}
+
+	/**
+	 * convert the row ranges of the sheet concurrently, and output the pages in the order of ranges.
+	 */
+	protected void runRowRanges(final PluginTask task, final Schema schema, final PoiExcelWorkbookContext context,
+			final Sheet sheet, final PoiExcelSheetBean sheetBean, int parallelism, final BufferAllocator allocator,
+			PageOutput output) {
+		int startRowIndex = Math.max(sheet.getFirstRowNum(), sheetBean.getRecordStartIndex());
+		int endRowIndex = Math.min(sheet.getLastRowNum() + 1, sheetBean.getRecordEndIndex());
+		int chunkSize = Math.max(task.getRowChunkSize(), 1);
+		logger.info("row_parallelism={}, rows=[{}, {}), row_chunk_size={}", parallelism, startRowIndex, endRowIndex,
+				chunkSize);
+
+		// the pages of the ranges after head are held, so the number of submitted ranges is limited
+		final int maxSubmitted = parallelism * 2;
+		final PoiExcelParallelPageOutput parallelOutput = new PoiExcelParallelPageOutput(output, true);
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			Deque<Future<?>> futures = new ArrayDeque<>(maxSubmitted);
+			int partNumber = 0;
+			for (int start = startRowIndex; start < endRowIndex; start += chunkSize) {
+				if (futures.size() >= maxSubmitted) {
+					waitFor(futures.poll());
+				}
+
+				final int part = partNumber++;
+				final int rangeStart = start;
+				final int rangeEnd = (int) Math.min((long) start + chunkSize, endRowIndex);
+				final PageOutput partOutput = parallelOutput.newPartOutput(part);
+				futures.add(pool.submit(new Runnable() {
+
+					@Override
+					@SuppressWarnings("deprecation")
+					public void run() {
+						// deprecated constructor: Exec.getPageBuilder() is not available on the worker threads
+						try (PageBuilder pageBuilder = new PageBuilder(allocator, schema, partOutput)) {
+							PoiExcelVisitorValue visitorValue = new PoiExcelVisitorValue(task, context, sheet,
+									pageBuilder, sheetBean);
+							PoiExcelVisitorFactory factory = new PoiExcelVisitorFactory(visitorValue);
+							PoiExcelRecord record = new PoiExcelRecordRowRange(rangeStart, rangeEnd);
+							PoiExcelParserPlugin.this.run(task, schema, sheet, record, factory, pageBuilder);
+							pageBuilder.finish();
+						}
+						parallelOutput.finishPart(part);
+					}
+				}));
+			}
+
+			while (!futures.isEmpty()) {
+				waitFor(futures.poll());
+			}
+		} catch (RuntimeException | Error e) {
+			pool.shutdownNow();
+			parallelOutput.abort();
+			throw e;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static void waitFor(Future<?> future) {
+		try {
+			future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	@SuppressWarnings("deprecation")
+	protected void run(PluginTask task, Schema schema, PoiExcelStreamingReader reader, List<String> sheetNames,
+			PageOutput output) {
+		// deprecated constructor: same as the user_model path, which shares the allocator with the worker threads
+		BufferAllocator allocator = Exec.getBufferAllocator();
+		try (final PageBuilder pageBuilder = new PageBuilder(allocator, schema, output)) {
 			for (String sheetName : sheetNames) {
-				Sheet sheet = workbook.getSheet(sheetName);
-				if (sheet == null) {
+				final int sheetIndex = reader.getSheetIndex(sheetName);
+				if (sheetIndex < 0) {
 					if (task.getIgnoreSheetNotFound()) {
 						logger.info("ignore: not found sheet={}", sheetName);
 						continue;
@@ -289,39 +686,74 @@ public class PoiExcelParserPlugin implements ParserPlugin {
 				}
 
 				logger.info("sheet={}", sheetName);
-				PoiExcelVisitorFactory factory = newPoiExcelVisitorFactory(task, schema, sheet, pageBuilder);
-				PoiExcelColumnVisitor visitor = factory.getPoiExcelColumnVisitor();
+				PoiExcelVisitorFactory factory = newPoiExcelVisitorFactory(task, schema, sheetName, sheetIndex,
+						reader.isDate1904(), pageBuilder);
+				final PoiExcelColumnVisitor visitor = factory.getPoiExcelColumnVisitor();
 				PoiExcelSheetBean sheetBean = factory.getVisitorValue().getSheetBean();
-				final int skipHeaderLines = sheetBean.getSkipHeaderLines();
+				final long maxRecords = sheetBean.getMaxRecords();
 
-				PoiExcelRecord record = sheetBean.getRecordType().newPoiExcelRecord();
-				record.initialize(sheet, skipHeaderLines);
+				final PoiExcelPageFlusher flusher = new PoiExcelPageFlusher(pageBuilder, task);
+				final PoiExcelRecordStreamingRow record = new PoiExcelRecordStreamingRow();
+				record.initialize(null, sheetBean.getRecordStartIndex(), sheetBean.getRecordEndIndex());
 				visitor.setRecord(record);
+				final PoiExcelEmptyRecordFilter filter = new PoiExcelEmptyRecordFilter(sheetBean, visitor,
+						sheetBean.getRecordStartIndex());
+
+				if (maxRecords == 0) {
+					logger.debug("max_records=0. sheet={} is not read", sheetName);
+				} else {
+					reader.readSheet(sheetName, new PoiExcelStreamingRowHandler() {
+						private long count = 0;
+
+						@Override
+						public boolean handleRow(PoiExcelStreamingRow row) {
+							if (!record.setRow(row)) {
+								// stop reading the sheet after end_row
+								return !record.isFinished();
+							}
+							PoiExcelEmptyRecordFilter.Action action = filter.check(record.getRecordIndex());
+							if (action == PoiExcelEmptyRecordFilter.Action.STOP) {
+								// stop reading the sheet at stop_on_blank_rows
+								return false;
+							}
+							if (action == PoiExcelEmptyRecordFilter.Action.SKIP) {
+								record.moveNext();
+								return true;
+							}
+							record.logStart();
+
+							visitor.visitRecord(); // use record
+							flusher.addRecord();
+
+							record.logEnd();
+							record.moveNext();
+
+							// stop reading the sheet at max_records
+							return !(maxRecords >= 0 && ++count >= maxRecords);
+						}
+					});
+				}
+				flusher.flush();
 
-				int count = 0;
-				for (; record.exists(); record.moveNext()) {
-					record.logStart();
-
-					schema.visitColumns(visitor); // use record
-					pageBuilder.addRecord();
-
-					if (++count >= flushCount) {
-						logger.trace("flush");
-						pageBuilder.flush();
-						count = 0;
-					}
-
-					record.logEnd();
+				if (filter.getSkippedCount() > 0) {
+					logger.info("skip_empty_rows sheet={}, skipped={}", sheetName, filter.getSkippedCount());
 				}
-				pageBuilder.flush();
+				logColumnCount(sheetName, sheetBean);
 			}
 			pageBuilder.finish();
 		}
 	}
 
-	protected PoiExcelVisitorFactory newPoiExcelVisitorFactory(PluginTask task, Schema schema, Sheet sheet,
-			PageBuilder pageBuilder) {
-		PoiExcelVisitorValue visitorValue = new PoiExcelVisitorValue(task, schema, sheet, pageBuilder);
+	protected PoiExcelVisitorFactory newPoiExcelVisitorFactory(PluginTask task, Schema schema,
+			PoiExcelWorkbookContext context, Sheet sheet, PageBuilder pageBuilder) {
+		PoiExcelVisitorValue visitorValue = new PoiExcelVisitorValue(task, schema, context, sheet, pageBuilder);
+		return new PoiExcelVisitorFactory(visitorValue);
+	}
+
+	protected PoiExcelVisitorFactory newPoiExcelVisitorFactory(PluginTask task, Schema schema, String sheetName,
+			int sheetIndex, boolean date1904, PageBuilder pageBuilder) {
+		PoiExcelVisitorValue visitorValue = new PoiExcelVisitorValue(task, schema, sheetName, sheetIndex, date1904,
+				pageBuilder);
 		return new PoiExcelVisitorFactory(visitorValue);
 	}
 }
@@ -0,0 +1,204 @@
+package org.embulk.parser.poi_excel;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.embulk.spi.Buffer;
+import org.embulk.spi.Exec;
+import org.embulk.spi.FileInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * one input file which is kept on heap if small, otherwise spilled to temporary file.
+ * <p>
+ * the temporary file is opened by {@code OPCPackage.open(File)} or {@code POIFSFileSystem(File)} for random access
+ * (POIFS maps the file by {@link FileChannel#map}), and deleted by {@link #close()}.
+ * </p>
+ */
+public class PoiExcelSpilledInput implements Closeable {
+	private static final Logger logger = LoggerFactory.getLogger(PoiExcelSpilledInput.class);
+
+	private final byte[] bytes;
+	private final File file;
+
+	private PoiExcelSpilledInput(byte[] bytes, File file) {
+		this.bytes = bytes;
+		this.file = file;
+	}
+
+	/**
+	 * read the current file of {@link FileInput}.
+	 * <p>
+	 * the buffers are written to the temporary file by {@link FileChannel} without copying to a stream.
+	 * </p>
+	 *
+	 * @param input          file input which is positioned by {@link FileInput#nextFile()}
+	 * @param thresholdBytes spill to temporary file when the size exceeds this. negative means always spill
+	 * @param tempDir        directory of temporary file. null means Embulk's temporary file space
+	 * @return input
+	 */
+	public static PoiExcelSpilledInput spill(FileInput input, long thresholdBytes, String tempDir) {
+		List<Buffer> buffers = new ArrayList<>();
+		try {
+			long size = 0;
+			if (thresholdBytes >= 0) {
+				long limit = Math.min(thresholdBytes, Integer.MAX_VALUE - 16);
+				while (size <= limit) {
+					Buffer buffer = input.poll();
+					if (buffer == null) {
+						return new PoiExcelSpilledInput(toBytes(buffers, (int) size), null);
+					}
+					buffers.add(buffer);
+					size += buffer.limit();
+				}
+			}
+
+			File file = createTempFile(tempDir, "poi_excel");
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+				for (Buffer buffer : buffers) {
+					write(channel, buffer);
+				}
+				releaseAll(buffers);
+				for (;;) {
+					Buffer buffer = input.poll();
+					if (buffer == null) {
+						break;
+					}
+					try {
+						size += write(channel, buffer);
+					} finally {
+						buffer.release();
+					}
+				}
+			} catch (IOException | RuntimeException e) {
+				delete(file);
+				throw e;
+			}
+			logger.debug("spilled to temporary file. input={}, size={}, file={}",
+					input.hintOfCurrentInputFileNameForLogging().orElse(""), size, file);
+			return new PoiExcelSpilledInput(null, file);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		} finally {
+			releaseAll(buffers);
+		}
+	}
+
+	/**
+	 * write the buffer (such as the sample of guess) to the temporary file.
+	 *
+	 * @param buffer  whole file
+	 * @param tempDir directory of temporary file. null means Embulk's temporary file space
+	 * @return input
+	 */
+	public static PoiExcelSpilledInput spill(Buffer buffer, String tempDir) {
+		File file = createTempFile(tempDir, "poi_excel");
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+			write(channel, buffer);
+		} catch (IOException e) {
+			delete(file);
+			throw new RuntimeException(e);
+		} catch (RuntimeException e) {
+			delete(file);
+			throw e;
+		}
+		return new PoiExcelSpilledInput(null, file);
+	}
+
+	private static byte[] toBytes(List<Buffer> buffers, int size) {
+		byte[] bytes = new byte[size];
+		int pos = 0;
+		for (Buffer buffer : buffers) {
+			buffer.getBytes(0, bytes, pos, buffer.limit());
+			pos += buffer.limit();
+		}
+		return bytes;
+	}
+
+	@SuppressWarnings("deprecation")
+	private static int write(FileChannel channel, Buffer buffer) throws IOException {
+		// wrap the backing array instead of getBytes() to avoid the copy
+		ByteBuffer b = ByteBuffer.wrap(buffer.array(), buffer.offset(), buffer.limit());
+		while (b.hasRemaining()) {
+			channel.write(b);
+		}
+		return buffer.limit();
+	}
+
+	private static void releaseAll(List<Buffer> buffers) {
+		for (Buffer buffer : buffers) {
+			buffer.release();
+		}
+		buffers.clear();
+	}
+
+	public static File createTempFile(String tempDir, String prefix) {
+		if (tempDir == null) {
+			return Exec.getTempFileSpace().createTempFile(prefix);
+		}
+		try {
+			Path dir = Paths.get(tempDir);
+			Files.createDirectories(dir);
+			return Files.createTempFile(dir, prefix, ".tmp").toFile();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @return temporary file. null if kept on heap
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	public FileMagic getFileMagic() {
+		try {
+			if (file != null) {
+				return FileMagic.valueOf(file);
+			}
+			return FileMagic.valueOf(new ByteArrayInputStream(bytes));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public Workbook createWorkbook() {
+		try {
+			if (file != null) {
+				return WorkbookFactory.create(file, null, true);
+			}
+			return WorkbookFactory.create(new ByteArrayInputStream(bytes));
+		} catch (IOException | EncryptedDocumentException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (file != null) {
+			delete(file);
+		}
+	}
+
+	private static void delete(File file) {
+		if (!file.delete()) {
+			logger.debug("delete failed. file={}", file);
+		}
+	}
+}
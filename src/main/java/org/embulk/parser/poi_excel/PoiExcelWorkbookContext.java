@@ -0,0 +1,163 @@
+package org.embulk.parser.poi_excel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.Date1904Support;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.embulk.parser.poi_excel.bean.util.SearchMergedCell;
+import org.embulk.parser.poi_excel.visitor.util.MergedRegionFinder;
+import org.embulk.parser.poi_excel.visitor.util.PoiExcelCommentIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * state shared by all sheets and columns of one workbook (reader=user_model).
+ * <p>
+ * owns the workbook and the caches derived from it (formula evaluator, merged region indexes, comment indexes).
+ * {@link #close()}
+ * releases them and closes the workbook, so nothing is kept after the input file.
+ * </p>
+ * <p>
+ * the formula evaluator is created at the first evaluation and reused until the end of the workbook, so the results
+ * of the referenced cells are cached. the cache is invalidated only for the cells which are rewritten by
+ * {@link #setCellFormula(Cell, String)}. the methods are synchronized because the workbook is shared by
+ * sheet_parallelism and row_parallelism.
+ * </p>
+ */
+public class PoiExcelWorkbookContext implements Closeable {
+	private static final Logger logger = LoggerFactory.getLogger(PoiExcelWorkbookContext.class);
+
+	private final Workbook workbook;
+
+	private FormulaEvaluator formulaEvaluator;
+	private long evaluateCount = 0;
+
+	private volatile Boolean forceFormulaRecalculation;
+
+	private final Map<SearchMergedCell, MergedRegionFinder> mergedRegionFinders = new EnumMap<>(
+			SearchMergedCell.class);
+
+	private final Map<Sheet, PoiExcelCommentIndex> commentIndexes = new IdentityHashMap<>();
+
+	public PoiExcelWorkbookContext(Workbook workbook) {
+		this.workbook = workbook;
+	}
+
+	public Workbook getWorkbook() {
+		return workbook;
+	}
+
+	/**
+	 * @return true if the workbook uses 1904 date system
+	 */
+	public boolean isDate1904() {
+		if (workbook instanceof Date1904Support) {
+			return ((Date1904Support) workbook).isDate1904();
+		}
+		return false;
+	}
+
+	public synchronized MergedRegionFinder getMergedRegionFinder(SearchMergedCell search) {
+		MergedRegionFinder finder = mergedRegionFinders.get(search);
+		if (finder == null) {
+			finder = search.createMergedRegionFinder();
+			mergedRegionFinders.put(search, finder);
+		}
+		return finder;
+	}
+
+	/**
+	 * @return comments of the sheet, which are read at the first call
+	 */
+	public synchronized PoiExcelCommentIndex getCommentIndex(Sheet sheet) {
+		PoiExcelCommentIndex index = commentIndexes.get(sheet);
+		if (index == null) {
+			index = PoiExcelCommentIndex.of(sheet.getCellComments());
+			commentIndexes.put(sheet, index);
+		}
+		return index;
+	}
+
+	protected FormulaEvaluator getFormulaEvaluator() {
+		if (formulaEvaluator == null) {
+			this.formulaEvaluator = workbook.getCreationHelper().createFormulaEvaluator();
+		}
+		return formulaEvaluator;
+	}
+
+	/**
+	 * @param cell formula cell
+	 * @return true if the cached result of the formula can be used
+	 */
+	public boolean hasCachedFormulaResult(Cell cell) {
+		// fullCalcOnLoad(xlsx) or uncalced(xls): the cached results are stale
+		if (forceFormulaRecalculation == null) {
+			this.forceFormulaRecalculation = workbook.getForceFormulaRecalculation();
+		}
+		if (forceFormulaRecalculation) {
+			return false;
+		}
+
+		if (cell instanceof XSSFCell) {
+			// <v> is not written by the tools which do not calculate
+			return ((XSSFCell) cell).getCTCell().isSetV();
+		}
+		// xls always has the cached result in FORMULA record
+		return true;
+	}
+
+	public synchronized CellValue evaluate(Cell cell) {
+		evaluateCount++;
+		return getFormulaEvaluator().evaluate(cell);
+	}
+
+	public synchronized void setCellFormula(Cell cell, String formula) {
+		cell.setCellFormula(formula);
+		if (formulaEvaluator != null) {
+			formulaEvaluator.notifyUpdateCell(cell);
+		}
+	}
+
+	/**
+	 * release the caches and close the workbook.
+	 */
+	@Override
+	public synchronized void close() {
+		long mergedRegionCount = 0;
+		for (MergedRegionFinder finder : mergedRegionFinders.values()) {
+			mergedRegionCount += finder.clear();
+		}
+		mergedRegionFinders.clear();
+
+		long commentCount = 0;
+		for (PoiExcelCommentIndex index : commentIndexes.values()) {
+			commentCount += index.size();
+		}
+		commentIndexes.clear();
+
+		boolean evaluator = (formulaEvaluator != null);
+		if (evaluator) {
+			formulaEvaluator.clearAllCachedResultValues();
+			this.formulaEvaluator = null;
+		}
+
+		try {
+			workbook.close();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		} finally {
+			logger.info(
+					"workbook context closed. merged region entries={}, comment entries={}, formula evaluator={}, evaluate count={}",
+					mergedRegionCount, commentCount, evaluator, evaluateCount);
+		}
+	}
+}
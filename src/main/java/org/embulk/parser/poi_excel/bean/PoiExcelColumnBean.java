@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.poi.ss.util.CellReference;
 import org.embulk.config.ConfigException;
@@ -14,8 +15,8 @@ import org.embulk.parser.poi_excel.PoiExcelParserPlugin.ColumnOptionTask;
 import org.embulk.parser.poi_excel.PoiExcelParserPlugin.FormulaReplaceTask;
 import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean.ErrorStrategy.Strategy;
 import org.embulk.parser.poi_excel.bean.util.PoiExcelCellAddress;
+import org.embulk.parser.poi_excel.bean.util.PoiExcelFormulaReplace;
 import org.embulk.parser.poi_excel.bean.util.SearchMergedCell;
-import org.embulk.parser.poi_excel.visitor.util.MergedRegionFinder;
 import org.embulk.spi.Column;
 
 public class PoiExcelColumnBean {
@@ -126,7 +127,8 @@ public class PoiExcelColumnBean {
 		return Optional.empty();
 	}
 
-	private Optional<PoiExcelCellAddress> cellAddress;
+	// shared by row_parallelism
+	private volatile Optional<PoiExcelCellAddress> cellAddress;
 
 	public PoiExcelCellAddress getCellAddress() {
 		if (cellAddress == null) {
@@ -151,7 +153,7 @@ public class PoiExcelColumnBean {
 	}
 
 	protected abstract class CacheValue<T> {
-		private T value;
+		private volatile T value;
 
 		public CacheValue() {
 		}
@@ -301,7 +303,7 @@ public class PoiExcelColumnBean {
 			case "null":
 				return Optional.empty();
 			case "true": // compatibility ver 0.1.7
-				return Optional.of(getDefaultValue());
+				return Optional.of(SearchMergedCell.HASH_SEARCH);
 			case "false": // compatibility ver 0.1.7
 				return Optional.of(SearchMergedCell.NONE);
 			default:
@@ -321,7 +323,7 @@ public class PoiExcelColumnBean {
 
 		@Override
 		protected SearchMergedCell getDefaultValue() {
-			return SearchMergedCell.HASH_SEARCH;
+			return sheetBean.getReaderType().getDefaultSearchMergedCell();
 		}
 	};
 
@@ -329,17 +331,10 @@ public class PoiExcelColumnBean {
 		return searchMergedCell.get();
 	}
 
-	private MergedRegionFinder mergedRegionFinder;
-
-	public MergedRegionFinder getMergedRegionFinder() {
-		if (mergedRegionFinder == null) {
-			this.mergedRegionFinder = getSearchMergedCell().getMergedRegionFinder();
-		}
-		return mergedRegionFinder;
-	}
-
 	public enum FormulaHandling {
-		EVALUATE, CASHED_VALUE
+		EVALUATE, CASHED_VALUE,
+		/** use the cached value if exists and not stale, otherwise evaluate */
+		CACHED_THEN_EVALUATE
 	}
 
 	private CacheValue<FormulaHandling> formulaHandling = new CacheValue<FormulaHandling>() {
@@ -365,7 +360,7 @@ public class PoiExcelColumnBean {
 
 		@Override
 		protected FormulaHandling getDefaultValue() {
-			return FormulaHandling.EVALUATE;
+			return sheetBean.getReaderType().getDefaultFormulaHandling();
 		}
 	};
 
@@ -373,6 +368,38 @@ public class PoiExcelColumnBean {
 		return formulaHandling.get();
 	}
 
+	// formula_handling=cached_then_evaluate
+	private final AtomicLong formulaCachedCount = new AtomicLong();
+	private final AtomicLong formulaEvaluatedCount = new AtomicLong();
+
+	public void incrementFormulaCachedCount() {
+		formulaCachedCount.incrementAndGet();
+	}
+
+	public long getFormulaCachedCount() {
+		return formulaCachedCount.get();
+	}
+
+	public void incrementFormulaEvaluatedCount() {
+		formulaEvaluatedCount.incrementAndGet();
+	}
+
+	public long getFormulaEvaluatedCount() {
+		return formulaEvaluatedCount.get();
+	}
+
+	// string to timestamp parse cache
+	private final AtomicLong timestampCacheHitCount = new AtomicLong();
+	private final AtomicLong timestampCacheMissCount = new AtomicLong();
+
+	public AtomicLong getTimestampCacheHitCount() {
+		return timestampCacheHitCount;
+	}
+
+	public AtomicLong getTimestampCacheMissCount() {
+		return timestampCacheMissCount;
+	}
+
 	private CacheValue<List<FormulaReplaceTask>> formulaReplace = new CacheValue<List<FormulaReplaceTask>>() {
 
 		@Override
@@ -390,6 +417,15 @@ public class PoiExcelColumnBean {
 		return formulaReplace.get();
 	}
 
+	private volatile PoiExcelFormulaReplace compiledFormulaReplace;
+
+	public PoiExcelFormulaReplace getCompiledFormulaReplace() {
+		if (compiledFormulaReplace == null) {
+			this.compiledFormulaReplace = new PoiExcelFormulaReplace(getFormulaReplace());
+		}
+		return compiledFormulaReplace;
+	}
+
 	private CacheErrorStrategy evaluateErrorStrategy = new CacheErrorStrategy() {
 		@Override
 		protected Optional<String> getStringValue(ColumnCommonOptionTask task) {
@@ -1,5 +1,6 @@
 package org.embulk.parser.poi_excel.bean;
 
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -8,12 +9,13 @@ import java.util.Map.Entry;
 import java.util.Optional;
 
 
-import org.apache.poi.ss.usermodel.Sheet;
+import org.embulk.config.ConfigException;
 import org.embulk.parser.poi_excel.PoiExcelParserPlugin.ColumnOptionTask;
 import org.embulk.parser.poi_excel.PoiExcelParserPlugin.PluginTask;
 import org.embulk.parser.poi_excel.PoiExcelParserPlugin.SheetCommonOptionTask;
 import org.embulk.parser.poi_excel.PoiExcelParserPlugin.SheetOptionTask;
 import org.embulk.parser.poi_excel.bean.record.RecordType;
+import org.embulk.parser.poi_excel.reader.ReaderType;
 import org.embulk.spi.Column;
 import org.embulk.spi.Schema;
 import org.embulk.util.config.units.ColumnConfig;
@@ -22,21 +24,25 @@ import static org.embulk.parser.poi_excel.PoiExcelParserPlugin.getConfigMapper;
 
 public class PoiExcelSheetBean {
 
-	protected final Sheet sheet;
+	protected final String sheetName;
+	protected final ReaderType readerType;
 
 	private final List<SheetCommonOptionTask> sheetTaskList = new ArrayList<>(2);
 
 	private final List<PoiExcelColumnBean> columnBeanList = new ArrayList<>();
 
-	public PoiExcelSheetBean(PluginTask task, Schema schema, Sheet sheet) {
-		this.sheet = sheet;
+	public PoiExcelSheetBean(PluginTask task, Schema schema, String sheetName, ReaderType readerType) {
+		this.sheetName = sheetName;
+		this.readerType = readerType;
 
 		initializeSheetTask(task);
 		initializeColumnBean(task, schema);
+
+		readerType.validate(this);
 	}
 
 	private void initializeSheetTask(PluginTask task) {
-		String name = sheet.getSheetName();
+		String name = sheetName;
 		Map<String, SheetOptionTask> map = task.getSheetOptions();
 		SheetOptionTask s = map.get(name);
 		if (s != null) {
@@ -81,6 +87,14 @@ public class PoiExcelSheetBean {
 		new PoiExcelColumnIndex(this).initializeColumnIndex(task, columnBeanList);
 	}
 
+	public final String getSheetName() {
+		return sheetName;
+	}
+
+	public final ReaderType getReaderType() {
+		return readerType;
+	}
+
 	public final List<SheetCommonOptionTask> getSheetOption() {
 		return sheetTaskList;
 	}
@@ -107,6 +121,114 @@ public class PoiExcelSheetBean {
 		return 0;
 	}
 
+	/**
+	 * @return row index of start_row (0 origin)
+	 */
+	public int getStartRowIndex() {
+		List<SheetCommonOptionTask> list = getSheetOption();
+		for (SheetCommonOptionTask sheetTask : list) {
+			Optional<Integer> value = sheetTask.getStartRow();
+			if (value.isPresent()) {
+				int row = value.get();
+				if (row < 1) {
+					throw new ConfigException(MessageFormat.format("start_row must be 1 or more. start_row={0}", row));
+				}
+				return row - 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return row index after end_row (0 origin, exclusive). {@link Integer#MAX_VALUE} if not specified
+	 */
+	public int getEndRowIndex() {
+		List<SheetCommonOptionTask> list = getSheetOption();
+		for (SheetCommonOptionTask sheetTask : list) {
+			Optional<Integer> value = sheetTask.getEndRow();
+			if (value.isPresent()) {
+				int row = value.get();
+				if (row < getStartRowIndex() + 1) {
+					throw new ConfigException(MessageFormat.format(
+							"end_row must be start_row or more. end_row={0}, start_row={1}", row,
+							getStartRowIndex() + 1));
+				}
+				return row;
+			}
+		}
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * @return max records of the sheet. -1 if not specified
+	 */
+	public long getMaxRecords() {
+		List<SheetCommonOptionTask> list = getSheetOption();
+		for (SheetCommonOptionTask sheetTask : list) {
+			Optional<Long> value = sheetTask.getMaxRecords();
+			if (value.isPresent()) {
+				long max = value.get();
+				if (max < 0) {
+					throw new ConfigException(MessageFormat.format("max_records must be 0 or more. max_records={0}",
+							max));
+				}
+				return max;
+			}
+		}
+		return -1;
+	}
+
+	public boolean isSkipEmptyRows() {
+		List<SheetCommonOptionTask> list = getSheetOption();
+		for (SheetCommonOptionTask sheetTask : list) {
+			Optional<Boolean> value = sheetTask.getSkipEmptyRows();
+			if (value.isPresent()) {
+				return value.get();
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return number of the consecutive empty records which end the sheet. 0 if not specified
+	 */
+	public int getStopOnBlankRows() {
+		List<SheetCommonOptionTask> list = getSheetOption();
+		for (SheetCommonOptionTask sheetTask : list) {
+			Optional<Integer> value = sheetTask.getStopOnBlankRows();
+			if (value.isPresent()) {
+				int n = value.get();
+				if (n < 0) {
+					throw new ConfigException(MessageFormat.format(
+							"stop_on_blank_rows must be 0 or more. stop_on_blank_rows={0}", n));
+				}
+				return n;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return first index of the records (skip_header_lines, and start_row at record_type=row)
+	 */
+	public int getRecordStartIndex() {
+		int skipHeaderLines = getSkipHeaderLines();
+		if (getRecordType() == RecordType.ROW) {
+			return Math.max(skipHeaderLines, getStartRowIndex());
+		}
+		return skipHeaderLines;
+	}
+
+	/**
+	 * @return index after the records (end_row at record_type=row)
+	 */
+	public int getRecordEndIndex() {
+		if (getRecordType() == RecordType.ROW) {
+			return getEndRowIndex();
+		}
+		return Integer.MAX_VALUE;
+	}
+
 	public final List<PoiExcelColumnBean> getColumnBeans() {
 		return columnBeanList;
 	}
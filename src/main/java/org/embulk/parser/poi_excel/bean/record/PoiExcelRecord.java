@@ -10,10 +10,20 @@ public abstract class PoiExcelRecord {
 	// loop record
 
 	private Sheet sheet;
+	private int endIndex;
 
 	public final void initialize(Sheet sheet, int skipHeaderLines) {
+		initialize(sheet, skipHeaderLines, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param startIndex first index of the records (the rows or the columns before it are skipped)
+	 * @param endIndex   index after the records (the reading stops at it). used by record_type=row
+	 */
+	public final void initialize(Sheet sheet, int startIndex, int endIndex) {
 		this.sheet = sheet;
-		initializeLoop(skipHeaderLines);
+		this.endIndex = endIndex;
+		initializeLoop(startIndex);
 	}
 
 	protected abstract void initializeLoop(int skipHeaderLines);
@@ -22,6 +32,10 @@ public abstract class PoiExcelRecord {
 		return sheet;
 	}
 
+	protected final int getEndIndex() {
+		return endIndex;
+	}
+
 	public abstract boolean exists();
 
 	public abstract void moveNext();
@@ -38,6 +52,11 @@ public abstract class PoiExcelRecord {
 
 	protected abstract void logStartEnd(String part);
 
+	/**
+	 * @return index of the current record (row index at record_type=row, column index at record_type=column)
+	 */
+	public abstract int getRecordIndex();
+
 	public abstract int getRowIndex(PoiExcelColumnBean bean);
 
 	public abstract int getColumnIndex(PoiExcelColumnBean bean);
@@ -1,5 +1,7 @@
 package org.embulk.parser.poi_excel.bean.record;
 
+import java.util.Arrays;
+
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -7,12 +9,25 @@ import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * record of a column (record_type=column).
+ * <p>
+ * the cells of a row referenced by a column are read into an array at the first access (column-major), so
+ * {@link #getCell(PoiExcelColumnBean)} does not look up the row and the cell for each record.
+ * </p>
+ */
 public class PoiExcelRecordColumn extends PoiExcelRecord {
 	private static final Logger logger = LoggerFactory.getLogger(PoiExcelRecordColumn.class);
 
+	private static final Cell[] NO_CELLS = new Cell[0];
+
+	private int minColumnIndex;
 	private int maxColumnIndex;
 	private int currentColumnIndex;
 
+	// cells of the row per column index of schema
+	private Cell[][] rowCells = new Cell[0][];
+
 	@Override
 	protected void initializeLoop(int skipHeaderLines) {
 		int minColumnIndex = Integer.MAX_VALUE;
@@ -26,6 +41,9 @@ public class PoiExcelRecordColumn extends PoiExcelRecord {
 			maxColumnIndex = Math.max(maxColumnIndex, row.getLastCellNum());
 		}
 
+		this.minColumnIndex = Math.min(minColumnIndex, maxColumnIndex);
+		this.rowCells = new Cell[0][];
+
 		this.currentColumnIndex = maxColumnIndex;
 		for (int i = minColumnIndex; i < maxColumnIndex; i++) {
 			if (i < skipHeaderLines) {
@@ -57,6 +75,11 @@ public class PoiExcelRecordColumn extends PoiExcelRecord {
 		}
 	}
 
+	@Override
+	public int getRecordIndex() {
+		return currentColumnIndex;
+	}
+
 	@Override
 	public int getRowIndex(PoiExcelColumnBean bean) {
 		return bean.getColumnIndex();
@@ -69,12 +92,43 @@ public class PoiExcelRecordColumn extends PoiExcelRecord {
 
 	@Override
 	public Cell getCell(PoiExcelColumnBean bean) {
-		int rowIndex = getRowIndex(bean);
-		Row row = getSheet().getRow(rowIndex);
-		if (row == null) {
+		Cell[] cells = getRowCells(bean);
+		int i = currentColumnIndex - minColumnIndex;
+		if (i < 0 || i >= cells.length) {
 			return null;
 		}
-		int columnIndex = getColumnIndex(bean);
-		return row.getCell(columnIndex);
+		return cells[i];
+	}
+
+	protected Cell[] getRowCells(PoiExcelColumnBean bean) {
+		int index = bean.getColumn().getIndex();
+		if (index >= rowCells.length) {
+			this.rowCells = Arrays.copyOf(rowCells, index + 1);
+		}
+		Cell[] cells = rowCells[index];
+		if (cells == null) {
+			cells = readRowCells(getRowIndex(bean));
+			rowCells[index] = cells;
+		}
+		return cells;
+	}
+
+	/**
+	 * @return cells of [minColumnIndex, maxColumnIndex)
+	 */
+	protected Cell[] readRowCells(int rowIndex) {
+		Row row = getSheet().getRow(rowIndex);
+		if (row == null || maxColumnIndex <= minColumnIndex) {
+			return NO_CELLS;
+		}
+
+		Cell[] cells = new Cell[maxColumnIndex - minColumnIndex];
+		for (Cell cell : row) {
+			int i = cell.getColumnIndex() - minColumnIndex;
+			if (0 <= i && i < cells.length) {
+				cells[i] = cell;
+			}
+		}
+		return cells;
 	}
 }
@@ -31,11 +31,23 @@ public class PoiExcelRecordRow extends PoiExcelRecord {
 				continue;
 			}
 
-			this.currentRow = row;
+			this.currentRow = checkEnd(row);
 			break;
 		}
 	}
 
+	private Row checkEnd(Row row) {
+		if (row.getRowNum() >= getEndIndex()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("row({}) end", row.getRowNum());
+			}
+			// the rest rows are not read
+			this.rowIterator = null;
+			return null;
+		}
+		return row;
+	}
+
 	@Override
 	public boolean exists() {
 		return currentRow != null;
@@ -43,8 +55,8 @@ public class PoiExcelRecordRow extends PoiExcelRecord {
 
 	@Override
 	public void moveNext() {
-		if (rowIterator.hasNext()) {
-			this.currentRow = rowIterator.next();
+		if (rowIterator != null && rowIterator.hasNext()) {
+			this.currentRow = checkEnd(rowIterator.next());
 		} else {
 			this.currentRow = null;
 		}
@@ -58,6 +70,12 @@ public class PoiExcelRecordRow extends PoiExcelRecord {
 		}
 	}
 
+	@Override
+	public int getRecordIndex() {
+		assert currentRow != null;
+		return currentRow.getRowNum();
+	}
+
 	@Override
 	public int getRowIndex(PoiExcelColumnBean bean) {
 		assert currentRow != null;
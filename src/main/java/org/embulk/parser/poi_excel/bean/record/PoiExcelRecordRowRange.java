@@ -0,0 +1,86 @@
+package org.embulk.parser.poi_excel.bean.record;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * rows of [startRowIndex, endRowIndex) for row_parallelism.
+ * <p>
+ * same records as {@link PoiExcelRecordRow} in the range. (the rows which don't exist are skipped)
+ * </p>
+ */
+public class PoiExcelRecordRowRange extends PoiExcelRecord {
+	private static final Logger logger = LoggerFactory.getLogger(PoiExcelRecordRowRange.class);
+
+	private final int startRowIndex;
+	private final int endRowIndex;
+
+	private int rowIndex;
+	private Row currentRow;
+
+	public PoiExcelRecordRowRange(int startRowIndex, int endRowIndex) {
+		this.startRowIndex = startRowIndex;
+		this.endRowIndex = endRowIndex;
+	}
+
+	@Override
+	protected void initializeLoop(int skipHeaderLines) {
+		this.rowIndex = Math.max(startRowIndex, skipHeaderLines) - 1;
+		moveNext();
+	}
+
+	@Override
+	public boolean exists() {
+		return currentRow != null;
+	}
+
+	@Override
+	public void moveNext() {
+		Sheet sheet = getSheet();
+		int end = Math.min(endRowIndex, getEndIndex());
+		while (++rowIndex < end) {
+			Row row = sheet.getRow(rowIndex);
+			if (row != null) {
+				this.currentRow = row;
+				return;
+			}
+		}
+		this.currentRow = null;
+	}
+
+	@Override
+	protected void logStartEnd(String part) {
+		assert currentRow != null;
+		if (logger.isDebugEnabled()) {
+			logger.debug("row({}) {}", currentRow.getRowNum(), part);
+		}
+	}
+
+	@Override
+	public int getRecordIndex() {
+		assert currentRow != null;
+		return currentRow.getRowNum();
+	}
+
+	@Override
+	public int getRowIndex(PoiExcelColumnBean bean) {
+		assert currentRow != null;
+		return currentRow.getRowNum();
+	}
+
+	@Override
+	public int getColumnIndex(PoiExcelColumnBean bean) {
+		return bean.getColumnIndex();
+	}
+
+	@Override
+	public Cell getCell(PoiExcelColumnBean bean) {
+		assert currentRow != null;
+		int columnIndex = getColumnIndex(bean);
+		return currentRow.getCell(columnIndex);
+	}
+}
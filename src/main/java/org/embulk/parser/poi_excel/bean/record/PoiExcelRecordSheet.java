@@ -34,6 +34,11 @@ public class PoiExcelRecordSheet extends PoiExcelRecord {
 		}
 	}
 
+	@Override
+	public int getRecordIndex() {
+		return 0;
+	}
+
 	@Override
 	public int getRowIndex(PoiExcelColumnBean bean) {
 		throw new UnsupportedOperationException("unsupported at record_type=sheet");
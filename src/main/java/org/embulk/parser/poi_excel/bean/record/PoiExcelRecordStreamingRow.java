@@ -0,0 +1,100 @@
+package org.embulk.parser.poi_excel.bean.record;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
+import org.embulk.parser.poi_excel.reader.PoiExcelStreamingRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * record_type=row at reader=streaming. rows are pushed by the reader.
+ */
+public class PoiExcelRecordStreamingRow extends PoiExcelRecord {
+	private static final Logger logger = LoggerFactory.getLogger(PoiExcelRecordStreamingRow.class);
+
+	private int skipHeaderLines;
+	private PoiExcelStreamingRow currentRow;
+	private boolean finished;
+
+	@Override
+	protected void initializeLoop(int skipHeaderLines) {
+		this.skipHeaderLines = skipHeaderLines;
+		this.currentRow = null;
+		this.finished = false;
+	}
+
+	/**
+	 * @param row pushed row
+	 * @return false if skipped
+	 */
+	public boolean setRow(PoiExcelStreamingRow row) {
+		int rowIndex = row.getRowIndex();
+		if (rowIndex >= getEndIndex()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("row({}) end", rowIndex);
+			}
+			this.currentRow = null;
+			this.finished = true;
+			return false;
+		}
+		if (rowIndex < skipHeaderLines) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("row({}) skipped", rowIndex);
+			}
+			this.currentRow = null;
+			return false;
+		}
+
+		this.currentRow = row;
+		return true;
+	}
+
+	/**
+	 * @return true if the rows after end_row are pushed
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	@Override
+	public boolean exists() {
+		return currentRow != null;
+	}
+
+	@Override
+	public void moveNext() {
+		this.currentRow = null;
+	}
+
+	@Override
+	protected void logStartEnd(String part) {
+		assert currentRow != null;
+		if (logger.isDebugEnabled()) {
+			logger.debug("row({}) {}", currentRow.getRowIndex(), part);
+		}
+	}
+
+	@Override
+	public int getRecordIndex() {
+		assert currentRow != null;
+		return currentRow.getRowIndex();
+	}
+
+	@Override
+	public int getRowIndex(PoiExcelColumnBean bean) {
+		assert currentRow != null;
+		return currentRow.getRowIndex();
+	}
+
+	@Override
+	public int getColumnIndex(PoiExcelColumnBean bean) {
+		return bean.getColumnIndex();
+	}
+
+	@Override
+	public Cell getCell(PoiExcelColumnBean bean) {
+		assert currentRow != null;
+		int columnIndex = getColumnIndex(bean);
+		return currentRow.getCell(columnIndex);
+	}
+}
@@ -0,0 +1,100 @@
+package org.embulk.parser.poi_excel.bean.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.apache.poi.ss.util.CellReference;
+import org.embulk.parser.poi_excel.PoiExcelParserPlugin.FormulaReplaceTask;
+
+/**
+ * compiled formula_replace of a column.
+ * <p>
+ * if no replacement uses <code>${row}</code> or <code>${column}</code>, the result depends only on the formula, so it
+ * is cached by the formula string. (copied formulas which refer the same cells are rewritten once)
+ * </p>
+ */
+public class PoiExcelFormulaReplace {
+
+	private static final int CACHE_LIMIT = 4096;
+
+	private static class Rule {
+		private final Pattern pattern;
+		private final String to;
+		private final boolean useRow;
+		private final boolean useColumn;
+
+		public Rule(FormulaReplaceTask task) {
+			this.pattern = Pattern.compile(task.getRegex());
+			this.to = task.getTo();
+			this.useRow = to.contains("${row}");
+			this.useColumn = to.contains("${column}");
+		}
+
+		public String replace(String formula, int rowIndex, int columnIndex) {
+			String replacement = to;
+			if (useRow) {
+				replacement = replacement.replace("${row}", Integer.toString(rowIndex + 1));
+			}
+			if (useColumn) {
+				replacement = replacement.replace("${column}", CellReference.convertNumToColString(columnIndex + 1));
+			}
+			return pattern.matcher(formula).replaceAll(replacement);
+		}
+	}
+
+	private final List<Rule> rules;
+	private final boolean cacheable;
+	private final Map<String, String> cache;
+
+	public PoiExcelFormulaReplace(List<FormulaReplaceTask> list) {
+		List<Rule> rules = new ArrayList<>(list.size());
+		boolean cacheable = true;
+		for (FormulaReplaceTask task : list) {
+			Rule rule = new Rule(task);
+			rules.add(rule);
+			if (rule.useRow || rule.useColumn) {
+				cacheable = false;
+			}
+		}
+		this.rules = rules;
+		this.cacheable = cacheable;
+		this.cache = cacheable ? new ConcurrentHashMap<String, String>() : null;
+	}
+
+	public boolean isEmpty() {
+		return rules.isEmpty();
+	}
+
+	/**
+	 * @return replaced formula. same instance if not replaced
+	 */
+	public String replace(String formula, int rowIndex, int columnIndex) {
+		if (!cacheable) {
+			return replace0(formula, rowIndex, columnIndex);
+		}
+
+		String result = cache.get(formula);
+		if (result == null) {
+			result = replace0(formula, rowIndex, columnIndex);
+			if (result.equals(formula)) {
+				result = formula;
+			}
+			if (cache.size() >= CACHE_LIMIT) {
+				cache.clear();
+			}
+			cache.put(formula, result);
+		}
+		return result;
+	}
+
+	private String replace0(String formula, int rowIndex, int columnIndex) {
+		String result = formula;
+		for (Rule rule : rules) {
+			result = rule.replace(result, rowIndex, columnIndex);
+		}
+		return result;
+	}
+}
@@ -6,6 +6,7 @@ import java.util.TreeMap;
 
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.embulk.parser.poi_excel.visitor.util.MergedRegionFinder;
+import org.embulk.parser.poi_excel.visitor.util.MergedRegionInterval;
 import org.embulk.parser.poi_excel.visitor.util.MergedRegionList;
 import org.embulk.parser.poi_excel.visitor.util.MergedRegionMap;
 import org.embulk.parser.poi_excel.visitor.util.MergedRegionNothing;
@@ -56,16 +57,16 @@ public enum SearchMergedCell {
 				}
 			};
 		}
-	};
-
-	private MergedRegionFinder mergedRegionFinder;
-
-	public MergedRegionFinder getMergedRegionFinder() {
-		if (mergedRegionFinder == null) {
-			this.mergedRegionFinder = createMergedRegionFinder();
+	},
+	INTERVAL_SEARCH {
+		@Override
+		public MergedRegionFinder createMergedRegionFinder() {
+			return new MergedRegionInterval();
 		}
-		return mergedRegionFinder;
-	}
+	};
 
-	protected abstract MergedRegionFinder createMergedRegionFinder();
+	/**
+	 * @return new finder. the finder is owned by {@code PoiExcelWorkbookContext}
+	 */
+	public abstract MergedRegionFinder createMergedRegionFinder();
 }
\ No newline at end of file
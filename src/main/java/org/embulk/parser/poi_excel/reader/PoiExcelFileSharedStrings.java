@@ -0,0 +1,216 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * shared strings table which keeps the strings in a memory-mapped temporary file.
+ * <p>
+ * the strings are written to the file as UTF-8 while sharedStrings.xml is parsed, and only the offsets are kept on
+ * heap. phonetic runs are not included (same as {@code ReadOnlySharedStringsTable(pkg, false)}).
+ * </p>
+ */
+public class PoiExcelFileSharedStrings extends DefaultHandler implements PoiExcelSharedStrings {
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private static final Pattern UTF_PATTERN = Pattern.compile("_x([0-9A-Fa-f]{4})_");
+
+	private final File file;
+
+	// offsets[i] is the start of i-th string, offsets[count] is the end of the last string
+	private int[] offsets = new int[1024];
+	private int count = 0;
+	private MappedByteBuffer buffer;
+
+	// for parse
+	private OutputStream os;
+	private long position = 0;
+	private final StringBuilder characters = new StringBuilder(64);
+	private boolean inString = false;
+	private boolean inText = false;
+	private boolean inPhonetic = false;
+
+	public PoiExcelFileSharedStrings(OPCPackage pkg, File file) {
+		this.file = file;
+		try {
+			List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+			try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file.toPath()), 64 * 1024)) {
+				this.os = os;
+				if (!parts.isEmpty()) {
+					try (InputStream is = parts.get(0).getInputStream()) {
+						parse(is);
+					}
+				}
+			} finally {
+				this.os = null;
+			}
+
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, position);
+			}
+		} catch (IOException | RuntimeException e) {
+			close();
+			throw new RuntimeException(e);
+		}
+		logger.debug("shared strings count={}, size={}, file={}", count, position, file);
+	}
+
+	protected void parse(InputStream is) throws IOException {
+		offsets[0] = 0;
+		try {
+			XMLReader parser = XMLHelper.newXMLReader();
+			parser.setContentHandler(this);
+			parser.parse(new InputSource(is));
+		} catch (SAXException e) {
+			if (e.getException() instanceof IOException) {
+				throw (IOException) e.getException();
+			}
+			throw new RuntimeException(e);
+		} catch (ParserConfigurationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attributes) {
+		switch (localName) {
+		case "sst":
+			String uniqueCount = attributes.getValue("uniqueCount");
+			if (uniqueCount != null) {
+				ensureCapacity(Integer.parseInt(uniqueCount) + 1);
+			}
+			break;
+		case "si":
+			characters.setLength(0);
+			this.inString = true;
+			break;
+		case "t":
+			this.inText = inString;
+			break;
+		case "rPh":
+			this.inPhonetic = true;
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) throws SAXException {
+		switch (localName) {
+		case "si":
+			try {
+				add(utfDecode(characters));
+			} catch (IOException e) {
+				throw new SAXException(e);
+			}
+			this.inString = false;
+			break;
+		case "t":
+			this.inText = false;
+			break;
+		case "rPh":
+			this.inPhonetic = false;
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) {
+		if (inText && !inPhonetic) {
+			characters.append(ch, start, length);
+		}
+	}
+
+	private void add(String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		os.write(bytes);
+		position += bytes.length;
+		if (position > Integer.MAX_VALUE) {
+			throw new IOException("shared strings exceed 2GB. file=" + file);
+		}
+		ensureCapacity(count + 2);
+		offsets[++count] = (int) position;
+	}
+
+	private void ensureCapacity(int size) {
+		if (size > offsets.length) {
+			this.offsets = Arrays.copyOf(offsets, Math.max(size, offsets.length * 2));
+		}
+	}
+
+	// same as XSSFRichTextString#utfDecode()
+	private static String utfDecode(CharSequence value) {
+		String s = value.toString();
+		if (s.indexOf("_x") < 0) {
+			return s;
+		}
+
+		StringBuilder sb = new StringBuilder(s.length());
+		Matcher m = UTF_PATTERN.matcher(s);
+		int pos = 0;
+		while (m.find()) {
+			sb.append(s, pos, m.start());
+			sb.append((char) Integer.parseInt(m.group(1), 16));
+			pos = m.end();
+		}
+		sb.append(s, pos, s.length());
+		return sb.toString();
+	}
+
+	@Override
+	public String getString(int index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("shared string index=" + index + ", count=" + count);
+		}
+		int start = offsets[index];
+		byte[] bytes = new byte[offsets[index + 1] - start];
+		ByteBuffer b = buffer.duplicate();
+		b.position(start);
+		b.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public int getUniqueCount() {
+		return count;
+	}
+
+	@Override
+	public void close() {
+		// the mapping is released by GC. the file can be deleted while mapped except on Windows.
+		this.buffer = null;
+		if (file.exists() && !file.delete()) {
+			logger.debug("delete failed. file={}", file);
+		}
+	}
+}
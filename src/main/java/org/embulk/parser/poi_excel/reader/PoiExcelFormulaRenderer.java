@@ -0,0 +1,11 @@
+package org.embulk.parser.poi_excel.reader;
+
+import org.apache.poi.ss.formula.ptg.Ptg;
+
+/**
+ * renderer of the parsed formula of xls, which streaming cells call lazily.
+ */
+public interface PoiExcelFormulaRenderer {
+
+	public String getFormulaString(Ptg[] formulaTokens);
+}
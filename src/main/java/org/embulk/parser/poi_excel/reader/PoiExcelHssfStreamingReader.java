@@ -0,0 +1,508 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.EventWorkbookBuilder.SheetRecordCollectingListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.model.HSSFFormulaParser;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DBCellRecord;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.ExtendedFormatRecord;
+import org.apache.poi.hssf.record.FormatRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.MulRKRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.RKRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.SharedFormulaRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.formula.ptg.ExpPtg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * streaming reader of xls by the event API of HSSF.
+ * <p>
+ * the records of the workbook stream are read to the end of the target sheet, and the cells are grouped by row.
+ * formula strings are rendered from the tokens only when they are used. cell style and comment are not supported.
+ * </p>
+ */
+public class PoiExcelHssfStreamingReader extends PoiExcelStreamingReader {
+
+	private final POIFSFileSystem fs;
+	private final List<String> sheetNames = new ArrayList<>();
+	private boolean date1904;
+
+	public PoiExcelHssfStreamingReader(File file) {
+		try {
+			this.fs = new POIFSFileSystem(file, true);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		try {
+			WorkbookListener listener = new WorkbookListener();
+			process(listener);
+			for (BoundSheetRecord r : listener.boundSheets) {
+				sheetNames.add(r.getSheetname());
+			}
+			this.date1904 = listener.date1904;
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	@Override
+	public List<String> getSheetNames() {
+		return Collections.unmodifiableList(sheetNames);
+	}
+
+	@Override
+	public boolean isDate1904() {
+		return date1904;
+	}
+
+	@Override
+	public void readSheet(String sheetName, PoiExcelStreamingRowHandler handler) {
+		SheetListener listener = new SheetListener(sheetName, handler);
+		process(listener);
+		if (!listener.found) {
+			throw new RuntimeException(MessageFormat.format("not found sheet={0}", sheetName));
+		}
+	}
+
+	protected void process(AbortableHSSFListener listener) {
+		HSSFRequest request = new HSSFRequest();
+		request.addListenerForAllRecords(listener);
+		try {
+			new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs);
+		} catch (IOException | HSSFUserException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			fs.close();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * reads the workbook globals, and aborts at the end of them.
+	 */
+	protected static class WorkbookListener extends AbortableHSSFListener {
+		private static final HSSFListener NOP = new HSSFListener() {
+
+			@Override
+			public void processRecord(Record record) {
+				// do nothing
+			}
+		};
+
+		protected final SheetRecordCollectingListener collector = new SheetRecordCollectingListener(NOP);
+		protected final List<BoundSheetRecord> boundSheets = new ArrayList<>();
+		protected SSTRecord sst;
+		protected boolean date1904 = false;
+		protected final List<ExtendedFormatRecord> xfRecords = new ArrayList<>();
+		protected final Map<Integer, String> formats = new HashMap<>();
+
+		private int depth = 0;
+		private boolean globals = true;
+
+		@Override
+		public short abortableProcessRecord(Record record) {
+			if (globals) {
+				collector.processRecord(record);
+			}
+
+			switch (record.getSid()) {
+			case BOFRecord.sid:
+				depth++;
+				break;
+			case EOFRecord.sid:
+				depth--;
+				if (depth == 0 && globals) {
+					this.globals = false;
+					return endGlobals();
+				}
+				break;
+			case BoundSheetRecord.sid:
+				if (globals) {
+					boundSheets.add((BoundSheetRecord) record);
+				}
+				break;
+			case SSTRecord.sid:
+				if (globals) {
+					this.sst = (SSTRecord) record;
+				}
+				break;
+			case DateWindow1904Record.sid:
+				if (globals) {
+					this.date1904 = ((DateWindow1904Record) record).getWindowing() == 1;
+				}
+				break;
+			case ExtendedFormatRecord.sid:
+				if (globals) {
+					xfRecords.add((ExtendedFormatRecord) record);
+				}
+				break;
+			case FormatRecord.sid:
+				if (globals) {
+					FormatRecord r = (FormatRecord) record;
+					formats.put(r.getIndexCode(), r.getFormatString());
+				}
+				break;
+			default:
+				if (!globals && depth == 1) {
+					return processSheetRecord(record);
+				}
+				break;
+			}
+			return 0;
+		}
+
+		protected boolean isGlobals() {
+			return globals;
+		}
+
+		protected int getDepth() {
+			return depth;
+		}
+
+		protected short endGlobals() {
+			return 1; // abort
+		}
+
+		protected short processSheetRecord(Record record) {
+			return 0;
+		}
+	}
+
+	/**
+	 * reads the rows of the target sheet, and aborts at the end of it.
+	 */
+	protected static class SheetListener extends WorkbookListener implements PoiExcelStreamingSheetSource,
+			PoiExcelFormulaRenderer {
+		private final String sheetName;
+		private final PoiExcelStreamingRowHandler handler;
+		private final PoiExcelStreamingRow row = new PoiExcelStreamingRow(this);
+
+		private BoundSheetRecord[] orderedSheets;
+		private int sheetNumber = -1;
+		private boolean target = false;
+		protected boolean found = false;
+
+		private boolean rowStarted = false;
+		private boolean stopped = false;
+		private int[] pendingRows = new int[32];
+		private int pendingStart = 0;
+		private int pendingEnd = 0;
+		private PoiExcelStreamingCell stringFormulaCell;
+
+		// SharedFormulaRecord follows the FormulaRecord of the master cell
+		private final Map<Integer, SharedFormulaRecord> sharedFormulas = new HashMap<>();
+		private FormulaRecord masterFormula;
+		private PoiExcelStreamingCell masterFormulaCell;
+
+		private HSSFWorkbook stubWorkbook;
+
+		public SheetListener(String sheetName, PoiExcelStreamingRowHandler handler) {
+			this.sheetName = sheetName;
+			this.handler = handler;
+		}
+
+		@Override
+		protected short endGlobals() {
+			this.orderedSheets = BoundSheetRecord.orderByBofPosition(boundSheets);
+			return 0;
+		}
+
+		@Override
+		public short abortableProcessRecord(Record record) {
+			if (!isGlobals() && getDepth() == 0) {
+				switch (record.getSid()) {
+				case BOFRecord.sid:
+					sheetNumber++;
+					this.target = sheetNumber < orderedSheets.length
+							&& orderedSheets[sheetNumber].getSheetname().equals(sheetName);
+					if (target) {
+						this.found = true;
+					}
+					break;
+				default:
+					break;
+				}
+			} else if (target && getDepth() == 1 && record.getSid() == EOFRecord.sid) {
+				finishRows();
+				return 1; // abort
+			}
+			short result = super.abortableProcessRecord(record);
+			if (stopped) {
+				return 1; // abort by the row handler
+			}
+			return result;
+		}
+
+		@Override
+		protected short processSheetRecord(Record record) {
+			if (!target) {
+				return 0;
+			}
+
+			switch (record.getSid()) {
+			case RowRecord.sid:
+				addPendingRow(((RowRecord) record).getRowNumber());
+				break;
+			case DBCellRecord.sid:
+				finishRows();
+				break;
+			case NumberRecord.sid:
+				newCell((NumberRecord) record).setNumericValue(((NumberRecord) record).getValue());
+				break;
+			case RKRecord.sid:
+				newCell((RKRecord) record).setNumericValue(((RKRecord) record).getRKNumber());
+				break;
+			case MulRKRecord.sid: {
+				MulRKRecord r = (MulRKRecord) record;
+				for (int i = 0; i < r.getNumColumns(); i++) {
+					PoiExcelStreamingCell cell = newCell(r.getRow(), r.getFirstColumn() + i, r.getXFAt(i));
+					cell.setNumericValue(r.getRKNumberAt(i));
+				}
+				break;
+			}
+			case LabelSSTRecord.sid:
+				newCell((LabelSSTRecord) record).setSharedStringValue(((LabelSSTRecord) record).getSSTIndex());
+				break;
+			case LabelRecord.sid:
+				newCell((LabelRecord) record).setStringValue(((LabelRecord) record).getValue());
+				break;
+			case BoolErrRecord.sid: {
+				BoolErrRecord r = (BoolErrRecord) record;
+				PoiExcelStreamingCell cell = newCell(r);
+				if (r.isBoolean()) {
+					cell.setBooleanValue(r.getBooleanValue());
+				} else {
+					cell.setErrorValue(r.getErrorValue());
+				}
+				break;
+			}
+			case BlankRecord.sid:
+				newCell((BlankRecord) record);
+				break;
+			case MulBlankRecord.sid: {
+				MulBlankRecord r = (MulBlankRecord) record;
+				for (int i = 0; i < r.getNumColumns(); i++) {
+					newCell(r.getRow(), r.getFirstColumn() + i, r.getXFAt(i));
+				}
+				break;
+			}
+			case FormulaRecord.sid:
+				processFormula((FormulaRecord) record);
+				break;
+			case SharedFormulaRecord.sid:
+				processSharedFormula((SharedFormulaRecord) record);
+				break;
+			case StringRecord.sid:
+				if (stringFormulaCell != null) {
+					stringFormulaCell.setStringValue(((StringRecord) record).getString());
+					this.stringFormulaCell = null;
+				}
+				break;
+			default:
+				break;
+			}
+			return 0;
+		}
+
+		protected void processFormula(FormulaRecord r) {
+			PoiExcelStreamingCell cell = newCell(r);
+			if (r.isSharedFormula()) {
+				// shared formula has only the reference to the master cell
+				Ptg[] ptgs = r.getParsedExpression();
+				SharedFormulaRecord shared = null;
+				if (ptgs.length > 0 && ptgs[0] instanceof ExpPtg) {
+					ExpPtg exp = (ExpPtg) ptgs[0];
+					shared = sharedFormulas.get(getCellKey(exp.getRow(), exp.getColumn()));
+				}
+				if (shared != null) {
+					cell.setFormula(shared.getFormulaTokens(r), this);
+				} else {
+					// the master cell. the following SharedFormulaRecord has the formula
+					cell.setFormula(null, this);
+					this.masterFormula = r;
+					this.masterFormulaCell = cell;
+				}
+			} else {
+				cell.setFormula(r.getParsedExpression(), this);
+			}
+
+			switch (r.getCachedResultTypeEnum()) {
+			case NUMERIC:
+				cell.setNumericValue(r.getValue());
+				break;
+			case STRING:
+				// the value is in the following StringRecord
+				cell.setStringValue("");
+				this.stringFormulaCell = cell;
+				break;
+			case BOOLEAN:
+				cell.setBooleanValue(r.getCachedBooleanValue());
+				break;
+			case ERROR:
+				cell.setErrorValue((byte) r.getCachedErrorValue());
+				break;
+			default:
+				break;
+			}
+		}
+
+		protected void processSharedFormula(SharedFormulaRecord r) {
+			sharedFormulas.put(getCellKey(r.getFirstRow(), r.getFirstColumn()), r);
+			if (masterFormula != null && r.isInRange(masterFormula.getRow(), masterFormula.getColumn())) {
+				masterFormulaCell.setFormula(r.getFormulaTokens(masterFormula), this);
+			}
+			this.masterFormula = null;
+			this.masterFormulaCell = null;
+		}
+
+		private static int getCellKey(int rowIndex, int columnIndex) {
+			// xls has 65536 rows and 256 columns
+			return (rowIndex << 8) | (columnIndex & 0xff);
+		}
+
+		private PoiExcelStreamingCell newCell(CellValueRecordInterface r) {
+			return newCell(r.getRow(), r.getColumn(), r.getXFIndex());
+		}
+
+		private PoiExcelStreamingCell newCell(int rowIndex, int columnIndex, int styleIndex) {
+			if (!rowStarted || row.getRowIndex() != rowIndex) {
+				finishRow();
+				// rows without cells (e.g. only formatted)
+				while (pendingStart < pendingEnd && pendingRows[pendingStart] < rowIndex) {
+					emitRow(pendingRows[pendingStart++]);
+				}
+				if (pendingStart < pendingEnd && pendingRows[pendingStart] == rowIndex) {
+					pendingStart++;
+				}
+				row.start(rowIndex);
+				this.rowStarted = true;
+			}
+			this.stringFormulaCell = null;
+			this.masterFormula = null;
+			this.masterFormulaCell = null;
+			PoiExcelStreamingCell cell = row.newCell(columnIndex);
+			cell.setStyleIndex(styleIndex);
+			return cell;
+		}
+
+		private void addPendingRow(int rowIndex) {
+			if (pendingStart == pendingEnd) {
+				this.pendingStart = 0;
+				this.pendingEnd = 0;
+			}
+			if (pendingEnd >= pendingRows.length) {
+				int[] rows = new int[Math.max(pendingRows.length, (pendingEnd - pendingStart) * 2)];
+				System.arraycopy(pendingRows, pendingStart, rows, 0, pendingEnd - pendingStart);
+				this.pendingRows = rows;
+				this.pendingEnd -= pendingStart;
+				this.pendingStart = 0;
+			}
+			pendingRows[pendingEnd++] = rowIndex;
+		}
+
+		private void finishRow() {
+			if (rowStarted) {
+				this.rowStarted = false;
+				handleRow();
+			}
+		}
+
+		private void finishRows() {
+			finishRow();
+			while (pendingStart < pendingEnd) {
+				emitRow(pendingRows[pendingStart++]);
+			}
+		}
+
+		private void emitRow(int rowIndex) {
+			row.start(rowIndex);
+			handleRow();
+		}
+
+		private void handleRow() {
+			if (!stopped && !handler.handleRow(row)) {
+				this.stopped = true;
+			}
+		}
+
+		// PoiExcelStreamingSheetSource, PoiExcelFormulaRenderer
+
+		@Override
+		public String getSharedString(int index) {
+			return sst.getString(index).getString();
+		}
+
+		@Override
+		public CellStyle getCellStyle(int styleIndex) {
+			// unsupported for xls
+			return null;
+		}
+
+		@Override
+		public boolean isDateFormat(int styleIndex) {
+			if (styleIndex < 0 || styleIndex >= xfRecords.size()) {
+				return false;
+			}
+			int formatIndex = xfRecords.get(styleIndex).getFormatIndex();
+			String format = formats.get(formatIndex);
+			if (format == null) {
+				format = BuiltinFormats.getBuiltinFormat(formatIndex);
+			}
+			return format != null && DateUtil.isADateFormat(formatIndex, format);
+		}
+
+		@Override
+		public Comment getCellComment(int rowIndex, int columnIndex) {
+			// unsupported for xls
+			return null;
+		}
+
+		@Override
+		public String getFormulaString(Ptg[] formulaTokens) {
+			if (stubWorkbook == null) {
+				this.stubWorkbook = collector.getStubHSSFWorkbook();
+			}
+			return HSSFFormulaParser.toFormulaString(stubWorkbook, formulaTokens);
+		}
+	}
+}
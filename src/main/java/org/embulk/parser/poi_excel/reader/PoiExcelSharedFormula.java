@@ -0,0 +1,319 @@
+package org.embulk.parser.poi_excel.reader;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * master formula of the cells which share it at xlsx ({@code <f t="shared" si="n">}).
+ * <p>
+ * the dependent cells have no formula text. their formula is the master formula whose relative references are
+ * shifted by the distance from the master cell, same as {@code XSSFCell.convertSharedFormula()}, but without the
+ * formula parser (which needs the whole workbook). the string literals, the quoted sheet names and the brackets
+ * (external workbooks, structured references) are kept as is. a reference shifted out of the sheet wraps around
+ * like Excel and {@code SharedFormula.convertSharedFormulas()}. the other parts of the formula are not normalized by
+ * the formula renderer (e.g. number literals and sheet names are kept as written).
+ * </p>
+ */
+public class PoiExcelSharedFormula {
+
+	private static final SpreadsheetVersion VERSION = SpreadsheetVersion.EXCEL2007;
+
+	private final String formula;
+	private final int rowIndex;
+	private final int columnIndex;
+
+	public PoiExcelSharedFormula(String formula, int rowIndex, int columnIndex) {
+		this.formula = formula;
+		this.rowIndex = rowIndex;
+		this.columnIndex = columnIndex;
+	}
+
+	public String getFormula() {
+		return formula;
+	}
+
+	/**
+	 * @return formula of the cell
+	 */
+	public String getFormula(int rowIndex, int columnIndex) {
+		int rowDelta = rowIndex - this.rowIndex;
+		int columnDelta = columnIndex - this.columnIndex;
+		if (rowDelta == 0 && columnDelta == 0) {
+			return formula;
+		}
+		return shift(formula, rowDelta, columnDelta);
+	}
+
+	static String shift(String formula, int rowDelta, int columnDelta) {
+		int length = formula.length();
+		StringBuilder sb = new StringBuilder(length + 8);
+		for (int i = 0; i < length;) {
+			char c = formula.charAt(i);
+			switch (c) {
+			case '"':
+			case '\'': {
+				// "" and '' in the literal are read as two literals
+				int end = formula.indexOf(c, i + 1);
+				end = (end < 0) ? length : end + 1;
+				sb.append(formula, i, end);
+				i = end;
+				continue;
+			}
+			case '[': {
+				int end = skipBracket(formula, i);
+				sb.append(formula, i, end);
+				i = end;
+				continue;
+			}
+			default:
+				break;
+			}
+
+			if (isTokenChar(c)) {
+				int end = i;
+				while (end < length && isTokenChar(formula.charAt(end))) {
+					end++;
+				}
+				i = appendToken(sb, formula, i, end, rowDelta, columnDelta);
+				continue;
+			}
+
+			sb.append(c);
+			i++;
+		}
+		return sb.toString();
+	}
+
+	private static int skipBracket(String formula, int start) {
+		int depth = 0;
+		for (int i = start; i < formula.length(); i++) {
+			char c = formula.charAt(i);
+			if (c == '[') {
+				depth++;
+			} else if (c == ']') {
+				depth--;
+				if (depth == 0) {
+					return i + 1;
+				}
+			}
+		}
+		return formula.length();
+	}
+
+	private static boolean isTokenChar(char c) {
+		return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '$' || c == '_'
+				|| c == '.' || c == '\\' || c > 0x7f;
+	}
+
+	/**
+	 * @return index after the appended tokens
+	 */
+	private static int appendToken(StringBuilder sb, String formula, int start, int end, int rowDelta,
+			int columnDelta) {
+		char next = (end < formula.length()) ? formula.charAt(end) : 0;
+		if (next == '(' || next == '!') {
+			// function name, sheet name
+			sb.append(formula, start, end);
+			return end;
+		}
+		if (start > 0 && formula.charAt(start - 1) == '#') {
+			// error literal such as #NAME?
+			sb.append(formula, start, end);
+			return end;
+		}
+
+		String token = formula.substring(start, end);
+		int end2 = end;
+		String token2 = null;
+		if (next == ':') {
+			end2 = end + 1;
+			while (end2 < formula.length() && isTokenChar(formula.charAt(end2))) {
+				end2++;
+			}
+			token2 = formula.substring(end + 1, end2);
+		}
+
+		Reference cell = Reference.parseCell(token);
+		if (cell != null) {
+			Reference last = (token2 != null) ? Reference.parseCell(token2) : null;
+			if (last == null) {
+				sb.append(cell.shift(rowDelta, columnDelta).format());
+				return end;
+			}
+			// area (A1:B2)
+			appendArea(sb, cell.shift(rowDelta, columnDelta), last.shift(rowDelta, columnDelta));
+			return end2;
+		}
+
+		// column range (A:B) or row range (1:2)
+		if (token2 != null) {
+			Reference first = Reference.parseColumn(token);
+			Reference last = Reference.parseColumn(token2);
+			if (first == null || last == null) {
+				first = Reference.parseRow(token);
+				last = Reference.parseRow(token2);
+			}
+			if (first != null && last != null) {
+				appendArea(sb, first.shift(rowDelta, columnDelta), last.shift(rowDelta, columnDelta));
+				return end2;
+			}
+		}
+
+		sb.append(token);
+		return end;
+	}
+
+	// the wrapped area is normalized to first <= last, same as AreaPtg
+	private static void appendArea(StringBuilder sb, Reference first, Reference last) {
+		Reference r1 = first;
+		Reference r2 = last;
+		if (first.row > last.row) {
+			r1 = r1.withRow(last);
+			r2 = r2.withRow(first);
+		}
+		if (first.column > last.column) {
+			Reference c1 = r1.withColumn(r2);
+			r2 = r2.withColumn(r1);
+			r1 = c1;
+		}
+		sb.append(r1.format()).append(':').append(r2.format());
+	}
+
+	private static class Reference {
+		private static final int NONE = -1;
+
+		final int row;
+		final boolean rowAbsolute;
+		final int column;
+		final boolean columnAbsolute;
+
+		Reference(int row, boolean rowAbsolute, int column, boolean columnAbsolute) {
+			this.row = row;
+			this.rowAbsolute = rowAbsolute;
+			this.column = column;
+			this.columnAbsolute = columnAbsolute;
+		}
+
+		// $A$1
+		static Reference parseCell(String token) {
+			int i = 0;
+			boolean columnAbsolute = token.startsWith("$");
+			if (columnAbsolute) {
+				i++;
+			}
+			int columnEnd = skipLetters(token, i);
+			if (columnEnd == i || columnEnd == token.length()) {
+				return null;
+			}
+			int column = parseColumnIndex(token, i, columnEnd);
+			i = columnEnd;
+			boolean rowAbsolute = token.charAt(i) == '$';
+			if (rowAbsolute) {
+				i++;
+			}
+			int row = parseRowIndex(token, i);
+			if (column < 0 || row < 0) {
+				return null;
+			}
+			return new Reference(row, rowAbsolute, column, columnAbsolute);
+		}
+
+		// $A
+		static Reference parseColumn(String token) {
+			int i = token.startsWith("$") ? 1 : 0;
+			int columnEnd = skipLetters(token, i);
+			if (columnEnd == i || columnEnd != token.length()) {
+				return null;
+			}
+			int column = parseColumnIndex(token, i, columnEnd);
+			if (column < 0) {
+				return null;
+			}
+			return new Reference(NONE, false, column, i > 0);
+		}
+
+		// $1
+		static Reference parseRow(String token) {
+			int i = token.startsWith("$") ? 1 : 0;
+			int row = parseRowIndex(token, i);
+			if (row < 0) {
+				return null;
+			}
+			return new Reference(row, i > 0, NONE, false);
+		}
+
+		private static int skipLetters(String token, int start) {
+			int i = start;
+			while (i < token.length() && Character.isLetter(token.charAt(i)) && token.charAt(i) <= 'z') {
+				i++;
+			}
+			return i;
+		}
+
+		private static int parseColumnIndex(String token, int start, int end) {
+			if (end - start > 3) {
+				return -1;
+			}
+			int n = 0;
+			for (int i = start; i < end; i++) {
+				n = n * 26 + (Character.toUpperCase(token.charAt(i)) - 'A' + 1);
+			}
+			n--;
+			return (n <= VERSION.getLastColumnIndex()) ? n : -1;
+		}
+
+		private static int parseRowIndex(String token, int start) {
+			if (start >= token.length() || token.length() - start > 7) {
+				return -1;
+			}
+			int n = 0;
+			for (int i = start; i < token.length(); i++) {
+				char c = token.charAt(i);
+				if (c < '0' || c > '9') {
+					return -1;
+				}
+				n = n * 10 + (c - '0');
+			}
+			n--;
+			return (n >= 0 && n <= VERSION.getLastRowIndex()) ? n : -1;
+		}
+
+		/**
+		 * @return shifted reference
+		 */
+		Reference shift(int rowDelta, int columnDelta) {
+			int c = (column == NONE || columnAbsolute) ? column : wrap(column + columnDelta, VERSION.getMaxColumns());
+			int r = (row == NONE || rowAbsolute) ? row : wrap(row + rowDelta, VERSION.getMaxRows());
+			return new Reference(r, rowAbsolute, c, columnAbsolute);
+		}
+
+		Reference withRow(Reference other) {
+			return new Reference(other.row, other.rowAbsolute, column, columnAbsolute);
+		}
+
+		Reference withColumn(Reference other) {
+			return new Reference(row, rowAbsolute, other.column, other.columnAbsolute);
+		}
+
+		String format() {
+			StringBuilder sb = new StringBuilder(12);
+			if (column != NONE) {
+				if (columnAbsolute) {
+					sb.append('$');
+				}
+				sb.append(CellReference.convertNumToColString(column));
+			}
+			if (row != NONE) {
+				if (rowAbsolute) {
+					sb.append('$');
+				}
+				sb.append(row + 1);
+			}
+			return sb.toString();
+		}
+
+		private static int wrap(int index, int size) {
+			return Math.floorMod(index, size);
+		}
+	}
+}
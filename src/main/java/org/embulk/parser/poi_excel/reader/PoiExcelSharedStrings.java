@@ -0,0 +1,18 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.io.Closeable;
+
+/**
+ * shared strings table of xlsx at reader=streaming.
+ *
+ * @see SharedStringsStore
+ */
+public interface PoiExcelSharedStrings extends Closeable {
+
+	public String getString(int index);
+
+	public int getUniqueCount();
+
+	@Override
+	public void close();
+}
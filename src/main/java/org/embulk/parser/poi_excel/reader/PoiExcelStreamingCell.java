@@ -0,0 +1,413 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.text.MessageFormat;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Hyperlink;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+/**
+ * read only cell of {@link PoiExcelStreamingRow}.
+ * <p>
+ * the instance is reused for the same column of the following rows. {@link #getSheet()} and {@link #getRow()} return
+ * null because there is no object model.
+ * </p>
+ */
+public class PoiExcelStreamingCell implements Cell {
+
+	private final PoiExcelStreamingRow row;
+	private final int columnIndex;
+
+	private long stamp;
+	private CellType cellType;
+	private CellType cachedType;
+	private double numericValue;
+	private String stringValue;
+	private int sharedStringIndex;
+	private boolean booleanValue;
+	private byte errorValue;
+	private String formula;
+	private Ptg[] formulaTokens;
+	private PoiExcelFormulaRenderer formulaRenderer;
+	private PoiExcelSharedFormula sharedFormula;
+	private int styleIndex;
+
+	PoiExcelStreamingCell(PoiExcelStreamingRow row, int columnIndex) {
+		this.row = row;
+		this.columnIndex = columnIndex;
+	}
+
+	final void clear(long stamp) {
+		this.stamp = stamp;
+		this.cellType = CellType.BLANK;
+		this.cachedType = null;
+		this.numericValue = 0;
+		this.stringValue = null;
+		this.sharedStringIndex = -1;
+		this.booleanValue = false;
+		this.errorValue = 0;
+		this.formula = null;
+		this.formulaTokens = null;
+		this.formulaRenderer = null;
+		this.sharedFormula = null;
+		this.styleIndex = 0;
+	}
+
+	final long getStamp() {
+		return stamp;
+	}
+
+	// setter for reader
+
+	public void setNumericValue(double value) {
+		setValueType(CellType.NUMERIC);
+		this.numericValue = value;
+	}
+
+	public void setStringValue(String value) {
+		setValueType(CellType.STRING);
+		this.stringValue = value;
+	}
+
+	public void setSharedStringValue(int index) {
+		setValueType(CellType.STRING);
+		this.sharedStringIndex = index;
+	}
+
+	public void setBooleanValue(boolean value) {
+		setValueType(CellType.BOOLEAN);
+		this.booleanValue = value;
+	}
+
+	public void setErrorValue(byte value) {
+		setValueType(CellType.ERROR);
+		this.errorValue = value;
+	}
+
+	public void setFormula(String formula) {
+		setFormulaType();
+		this.formula = formula;
+	}
+
+	// shifted lazily from the master formula (xlsx)
+	public void setFormula(PoiExcelSharedFormula sharedFormula) {
+		setFormulaType();
+		this.sharedFormula = sharedFormula;
+	}
+
+	// rendered lazily by the renderer (xls)
+	public void setFormula(Ptg[] formulaTokens, PoiExcelFormulaRenderer formulaRenderer) {
+		setFormulaType();
+		this.formulaTokens = formulaTokens;
+		this.formulaRenderer = formulaRenderer;
+	}
+
+	private void setFormulaType() {
+		if (cellType != CellType.FORMULA) {
+			this.cachedType = (cellType == CellType.BLANK) ? null : cellType;
+			this.cellType = CellType.FORMULA;
+		}
+	}
+
+	public void setStyleIndex(int styleIndex) {
+		this.styleIndex = styleIndex;
+	}
+
+	private void setValueType(CellType type) {
+		if (cellType == CellType.FORMULA) {
+			this.cachedType = type;
+		} else {
+			this.cellType = type;
+		}
+	}
+
+	// Cell
+
+	@Override
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
+	@Override
+	public int getRowIndex() {
+		return row.getRowIndex();
+	}
+
+	@Override
+	public Sheet getSheet() {
+		return null;
+	}
+
+	@Override
+	public Row getRow() {
+		return null;
+	}
+
+	@Override
+	public CellType getCellType() {
+		return cellType;
+	}
+
+	@Override
+	public CellType getCachedFormulaResultType() {
+		if (cellType != CellType.FORMULA) {
+			throw new IllegalStateException("Only formula cells have cached results");
+		}
+		return (cachedType != null) ? cachedType : CellType.BLANK;
+	}
+
+	private CellType getValueType() {
+		if (cellType == CellType.FORMULA) {
+			return (cachedType != null) ? cachedType : CellType.BLANK;
+		}
+		return cellType;
+	}
+
+	@Override
+	public String getCellFormula() {
+		if (cellType != CellType.FORMULA) {
+			throw typeMismatch(CellType.FORMULA, cellType);
+		}
+		if (formula == null) {
+			if (formulaTokens != null) {
+				this.formula = formulaRenderer.getFormulaString(formulaTokens);
+			} else if (sharedFormula != null) {
+				this.formula = sharedFormula.getFormula(getRowIndex(), columnIndex);
+			}
+		}
+		return formula;
+	}
+
+	@Override
+	public double getNumericCellValue() {
+		CellType type = getValueType();
+		switch (type) {
+		case BLANK:
+			return 0;
+		case NUMERIC:
+			return numericValue;
+		default:
+			throw typeMismatch(CellType.NUMERIC, type);
+		}
+	}
+
+	@Override
+	public Date getDateCellValue() {
+		if (getValueType() == CellType.BLANK) {
+			return null;
+		}
+		return DateUtil.getJavaDate(getNumericCellValue());
+	}
+
+	@Override
+	public LocalDateTime getLocalDateTimeCellValue() {
+		if (getValueType() == CellType.BLANK) {
+			return null;
+		}
+		return DateUtil.getLocalDateTime(getNumericCellValue());
+	}
+
+	@Override
+	public RichTextString getRichStringCellValue() {
+		throw new UnsupportedOperationException("unsupported at reader=streaming");
+	}
+
+	@Override
+	public String getStringCellValue() {
+		CellType type = getValueType();
+		switch (type) {
+		case BLANK:
+			return "";
+		case STRING:
+			if (stringValue == null && sharedStringIndex >= 0) {
+				this.stringValue = row.getSource().getSharedString(sharedStringIndex);
+			}
+			return stringValue;
+		default:
+			throw typeMismatch(CellType.STRING, type);
+		}
+	}
+
+	@Override
+	public boolean getBooleanCellValue() {
+		CellType type = getValueType();
+		switch (type) {
+		case BLANK:
+			return false;
+		case BOOLEAN:
+			return booleanValue;
+		default:
+			throw typeMismatch(CellType.BOOLEAN, type);
+		}
+	}
+
+	@Override
+	public byte getErrorCellValue() {
+		CellType type = getValueType();
+		if (type != CellType.ERROR) {
+			throw typeMismatch(CellType.ERROR, type);
+		}
+		return errorValue;
+	}
+
+	@Override
+	public CellStyle getCellStyle() {
+		return row.getSource().getCellStyle(styleIndex);
+	}
+
+	/**
+	 * @return true if the value is numeric and formatted as date (same as {@link DateUtil#isCellDateFormatted(Cell)},
+	 *         also for xls)
+	 */
+	public boolean isDateFormatted() {
+		if (getValueType() != CellType.NUMERIC || !DateUtil.isValidExcelDate(numericValue)) {
+			return false;
+		}
+		return row.getSource().isDateFormat(styleIndex);
+	}
+
+	@Override
+	public CellAddress getAddress() {
+		return new CellAddress(getRowIndex(), columnIndex);
+	}
+
+	@Override
+	public Comment getCellComment() {
+		return row.getSource().getCellComment(getRowIndex(), columnIndex);
+	}
+
+	@Override
+	public Hyperlink getHyperlink() {
+		return null;
+	}
+
+	@Override
+	public CellRangeAddress getArrayFormulaRange() {
+		throw new IllegalStateException(MessageFormat.format("Cell {0} is not part of an array formula.",
+				getAddress().formatAsString()));
+	}
+
+	@Override
+	public boolean isPartOfArrayFormulaGroup() {
+		return false;
+	}
+
+	private static IllegalStateException typeMismatch(CellType expected, CellType actual) {
+		return new IllegalStateException(MessageFormat.format("Cannot get a {0} value from a {1} cell", expected,
+				actual));
+	}
+
+	// read only
+
+	private static UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException("read only cell at reader=streaming");
+	}
+
+	@Override
+	@Deprecated
+	public void setCellType(CellType cellType) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setBlank() {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellValue(double value) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellValue(Date value) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellValue(LocalDateTime value) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellValue(Calendar value) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellValue(RichTextString value) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellValue(String value) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellFormula(String formula) {
+		throw readOnly();
+	}
+
+	@Override
+	public void removeFormula() {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellValue(boolean value) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellErrorValue(byte value) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellStyle(CellStyle style) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setAsActiveCell() {
+		throw readOnly();
+	}
+
+	@Override
+	public void setCellComment(Comment comment) {
+		throw readOnly();
+	}
+
+	@Override
+	public void removeCellComment() {
+		throw readOnly();
+	}
+
+	@Override
+	public void setHyperlink(Hyperlink link) {
+		throw readOnly();
+	}
+
+	@Override
+	public void removeHyperlink() {
+		throw readOnly();
+	}
+
+	@Override
+	public String toString() {
+		return getAddress().formatAsString();
+	}
+}
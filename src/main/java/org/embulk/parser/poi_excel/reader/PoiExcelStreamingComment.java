@@ -0,0 +1,116 @@
+package org.embulk.parser.poi_excel.reader;
+
+import org.apache.poi.ss.usermodel.ClientAnchor;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+/**
+ * read-only comment of streaming reader.
+ * <p>
+ * same values as XSSFComment read from the comments part only (without the VML drawing), i.e. not visible and no
+ * client anchor.
+ * </p>
+ */
+public class PoiExcelStreamingComment implements Comment {
+
+	private final CellAddress address;
+	private final String author;
+	private final String text;
+	private RichTextString string;
+
+	/**
+	 * @param address cell address
+	 * @param author author
+	 * @param text text of the comment (not decoded)
+	 */
+	public PoiExcelStreamingComment(CellAddress address, String author, String text) {
+		this.address = address;
+		this.author = author;
+		this.text = text;
+	}
+
+	@Override
+	public boolean isVisible() {
+		return false;
+	}
+
+	@Override
+	public CellAddress getAddress() {
+		return address;
+	}
+
+	@Override
+	public int getRow() {
+		return address.getRow();
+	}
+
+	@Override
+	public int getColumn() {
+		return address.getColumn();
+	}
+
+	@Override
+	public String getAuthor() {
+		return author;
+	}
+
+	@Override
+	public RichTextString getString() {
+		if (string == null) {
+			// XSSFRichTextString decodes the escaped characters (_xHHHH_)
+			this.string = new XSSFRichTextString(text);
+		}
+		return string;
+	}
+
+	@Override
+	public ClientAnchor getClientAnchor() {
+		return null;
+	}
+
+	@Override
+	public void setVisible(boolean visible) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setAddress(CellAddress address) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setAddress(int row, int col) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setRow(int row) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setColumn(int col) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setAuthor(String author) {
+		throw readOnly();
+	}
+
+	@Override
+	public void setString(RichTextString string) {
+		throw readOnly();
+	}
+
+	private static UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException("read only comment at reader=streaming");
+	}
+
+	@Override
+	public String toString() {
+		return address.formatAsString() + ":" + text;
+	}
+}
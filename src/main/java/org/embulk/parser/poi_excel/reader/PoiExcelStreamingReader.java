@@ -0,0 +1,32 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * reader which doesn't build the object model of workbook.
+ */
+public abstract class PoiExcelStreamingReader implements Closeable {
+
+	public abstract List<String> getSheetNames();
+
+	/**
+	 * @return true if the workbook uses 1904 date system
+	 */
+	public abstract boolean isDate1904();
+
+	public int getSheetIndex(String sheetName) {
+		return getSheetNames().indexOf(sheetName);
+	}
+
+	/**
+	 * read rows of the sheet in order.
+	 *
+	 * @param sheetName sheet name
+	 * @param handler   called for each row. the row is reused after return.
+	 */
+	public abstract void readSheet(String sheetName, PoiExcelStreamingRowHandler handler);
+
+	@Override
+	public abstract void close();
+}
@@ -0,0 +1,69 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.util.Arrays;
+
+/**
+ * buffer of the current row at reader=streaming.
+ * <p>
+ * the cells are reused for all rows, so memory is bounded by the widest row.
+ * </p>
+ */
+public class PoiExcelStreamingRow {
+
+	private final PoiExcelStreamingSheetSource source;
+
+	private PoiExcelStreamingCell[] cells = new PoiExcelStreamingCell[16];
+	private int rowIndex = -1;
+	private int lastCellNum = 0;
+	private long stamp = 0;
+
+	public PoiExcelStreamingRow(PoiExcelStreamingSheetSource source) {
+		this.source = source;
+	}
+
+	final PoiExcelStreamingSheetSource getSource() {
+		return source;
+	}
+
+	public void start(int rowIndex) {
+		this.rowIndex = rowIndex;
+		this.lastCellNum = 0;
+		this.stamp++;
+	}
+
+	public int getRowIndex() {
+		return rowIndex;
+	}
+
+	/**
+	 * @return last column index plus one of the current row (same as {@code Row.getLastCellNum()}). 0 if no cell
+	 */
+	public int getLastCellNum() {
+		return lastCellNum;
+	}
+
+	public PoiExcelStreamingCell newCell(int columnIndex) {
+		if (columnIndex >= cells.length) {
+			cells = Arrays.copyOf(cells, Math.max(columnIndex + 1, cells.length * 2));
+		}
+		PoiExcelStreamingCell cell = cells[columnIndex];
+		if (cell == null) {
+			cell = new PoiExcelStreamingCell(this, columnIndex);
+			cells[columnIndex] = cell;
+		}
+		cell.clear(stamp);
+		this.lastCellNum = Math.max(lastCellNum, columnIndex + 1);
+		return cell;
+	}
+
+	public PoiExcelStreamingCell getCell(int columnIndex) {
+		if (columnIndex < 0 || columnIndex >= cells.length) {
+			return null;
+		}
+		PoiExcelStreamingCell cell = cells[columnIndex];
+		if (cell == null || cell.getStamp() != stamp) {
+			return null;
+		}
+		return cell;
+	}
+}
@@ -0,0 +1,11 @@
+package org.embulk.parser.poi_excel.reader;
+
+// @FunctionalInterface
+public interface PoiExcelStreamingRowHandler {
+
+	/**
+	 * @param row row
+	 * @return false if the rest rows of the sheet are not needed (the reader stops reading the sheet)
+	 */
+	public boolean handleRow(PoiExcelStreamingRow row);
+}
@@ -0,0 +1,21 @@
+package org.embulk.parser.poi_excel.reader;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Comment;
+
+/**
+ * workbook parts which streaming cells refer lazily.
+ */
+public interface PoiExcelStreamingSheetSource {
+
+	public String getSharedString(int index);
+
+	public CellStyle getCellStyle(int styleIndex);
+
+	/**
+	 * @return true if the number format of the style is a date format
+	 */
+	public boolean isDateFormat(int styleIndex);
+
+	public Comment getCellComment(int rowIndex, int columnIndex);
+}
@@ -0,0 +1,103 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.util.CellAddress;
+import org.embulk.parser.poi_excel.visitor.util.PoiExcelCommentIndex;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler of xlsx comments part (commentsN.xml).
+ */
+public class PoiExcelXssfCommentsHandler extends DefaultHandler {
+
+	private final List<String> authors = new ArrayList<>();
+	private final PoiExcelCommentIndex.Builder builder = new PoiExcelCommentIndex.Builder();
+
+	private final StringBuilder value = new StringBuilder(64);
+
+	private boolean inAuthor;
+	private CellAddress address;
+	private String author;
+	private boolean inText;
+	private boolean inPhonetic;
+
+	public PoiExcelCommentIndex getCommentIndex() {
+		return builder.build();
+	}
+
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attributes) {
+		switch (localName) {
+		case "author":
+			this.inAuthor = true;
+			value.setLength(0);
+			break;
+		case "comment":
+			startComment(attributes.getValue("ref"), attributes.getValue("authorId"));
+			break;
+		case "text":
+			value.setLength(0);
+			break;
+		case "t":
+			if (address != null && !inPhonetic) {
+				this.inText = true;
+			}
+			break;
+		case "rPh":
+			this.inPhonetic = true;
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) {
+		if (inAuthor || inText) {
+			value.append(ch, start, length);
+		}
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) {
+		switch (localName) {
+		case "author":
+			this.inAuthor = false;
+			authors.add(value.toString());
+			break;
+		case "t":
+			this.inText = false;
+			break;
+		case "rPh":
+			this.inPhonetic = false;
+			break;
+		case "comment":
+			endComment();
+			break;
+		default:
+			break;
+		}
+	}
+
+	protected void startComment(String ref, String authorId) {
+		this.address = new CellAddress(ref);
+		// same as CommentsTable.getAuthor()
+		this.author = (authorId != null) ? getAuthor(Integer.parseInt(authorId)) : getAuthor(0);
+		value.setLength(0);
+	}
+
+	private String getAuthor(int index) {
+		return (index < authors.size()) ? authors.get(index) : null;
+	}
+
+	protected void endComment() {
+		if (address != null) {
+			PoiExcelStreamingComment comment = new PoiExcelStreamingComment(address, author, value.toString());
+			builder.add(address.getRow(), address.getColumn(), comment);
+		}
+		this.address = null;
+	}
+}
@@ -0,0 +1,241 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler of xlsx sheet part (sheetN.xml).
+ */
+public class PoiExcelXssfSheetHandler extends DefaultHandler {
+
+	private final PoiExcelStreamingRow row;
+	private final PoiExcelStreamingRowHandler rowHandler;
+
+	private final StringBuilder value = new StringBuilder(64);
+	private final StringBuilder formula = new StringBuilder(64);
+	// master formulas of si
+	private final Map<String, PoiExcelSharedFormula> sharedFormulas = new HashMap<>();
+
+	private int nextRowIndex = 0;
+	private int nextColumnIndex = 0;
+	private boolean inRow = false;
+
+	private PoiExcelStreamingCell cell;
+	private String cellType;
+	private boolean hasValue;
+	private boolean inValue;
+	private boolean inFormula;
+	private String sharedFormulaIndex;
+	private boolean inInlineString;
+	private boolean inInlineText;
+	private boolean inPhonetic;
+
+	public PoiExcelXssfSheetHandler(PoiExcelStreamingRow row, PoiExcelStreamingRowHandler rowHandler) {
+		this.row = row;
+		this.rowHandler = rowHandler;
+	}
+
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attributes) {
+		switch (localName) {
+		case "row":
+			startRow(attributes.getValue("r"));
+			break;
+		case "c":
+			if (!inRow) {
+				startRow(null);
+			}
+			startCell(attributes.getValue("r"), attributes.getValue("t"), attributes.getValue("s"));
+			break;
+		case "v":
+			if (cell != null) {
+				this.inValue = true;
+				this.hasValue = true;
+				value.setLength(0);
+			}
+			break;
+		case "f":
+			if (cell != null) {
+				this.inFormula = true;
+				this.sharedFormulaIndex = "shared".equals(attributes.getValue("t")) ? attributes.getValue("si") : null;
+				formula.setLength(0);
+			}
+			break;
+		case "is":
+			if (cell != null) {
+				this.inInlineString = true;
+				this.hasValue = true;
+				value.setLength(0);
+			}
+			break;
+		case "t":
+			if (inInlineString && !inPhonetic) {
+				this.inInlineText = true;
+			}
+			break;
+		case "rPh":
+			this.inPhonetic = true;
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public void characters(char[] ch, int start, int length) {
+		if (inValue || inInlineText) {
+			value.append(ch, start, length);
+		} else if (inFormula) {
+			formula.append(ch, start, length);
+		}
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) {
+		switch (localName) {
+		case "v":
+			this.inValue = false;
+			break;
+		case "f":
+			if (inFormula) {
+				this.inFormula = false;
+				endFormula();
+			}
+			break;
+		case "t":
+			this.inInlineText = false;
+			break;
+		case "rPh":
+			this.inPhonetic = false;
+			break;
+		case "is":
+			this.inInlineString = false;
+			break;
+		case "c":
+			endCell();
+			break;
+		case "row":
+			endRow();
+			break;
+		case "sheetData":
+			if (inRow) {
+				endRow();
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	protected void endFormula() {
+		if (sharedFormulaIndex == null) {
+			cell.setFormula((formula.length() > 0) ? formula.toString() : null);
+			return;
+		}
+
+		if (formula.length() > 0) {
+			// master cell
+			String text = formula.toString();
+			sharedFormulas.put(sharedFormulaIndex,
+					new PoiExcelSharedFormula(text, cell.getRowIndex(), cell.getColumnIndex()));
+			cell.setFormula(text);
+		} else {
+			// the cells which share the formula of the master cell have no text
+			cell.setFormula(sharedFormulas.get(sharedFormulaIndex));
+		}
+	}
+
+	protected void startRow(String ref) {
+		int rowIndex = (ref != null) ? Integer.parseInt(ref) - 1 : nextRowIndex;
+		row.start(rowIndex);
+		this.inRow = true;
+		this.nextColumnIndex = 0;
+	}
+
+	protected void endRow() {
+		this.inRow = false;
+		this.nextRowIndex = row.getRowIndex() + 1;
+		if (!rowHandler.handleRow(row)) {
+			throw new StopParsingException();
+		}
+	}
+
+	/**
+	 * thrown to stop the parsing when the rest rows are not needed.
+	 */
+	public static class StopParsingException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		public StopParsingException() {
+			super("stop parsing", null, false, false);
+		}
+	}
+
+	protected void startCell(String ref, String type, String style) {
+		int columnIndex = (ref != null) ? toColumnIndex(ref) : nextColumnIndex;
+		this.cell = row.newCell(columnIndex);
+		this.cellType = type;
+		this.hasValue = false;
+		if (style != null) {
+			cell.setStyleIndex(Integer.parseInt(style));
+		}
+	}
+
+	protected void endCell() {
+		if (cell == null) {
+			return;
+		}
+		if (hasValue) {
+			setCellValue(cell, cellType, value.toString());
+		}
+		this.nextColumnIndex = cell.getColumnIndex() + 1;
+		this.cell = null;
+	}
+
+	protected void setCellValue(PoiExcelStreamingCell cell, String type, String text) {
+		if (type == null) {
+			type = "n";
+		}
+		switch (type) {
+		case "s":
+			cell.setSharedStringValue(Integer.parseInt(text.trim()));
+			break;
+		case "inlineStr":
+		case "str":
+		case "d":
+			cell.setStringValue(text);
+			break;
+		case "b":
+			cell.setBooleanValue("1".equals(text) || "true".equalsIgnoreCase(text));
+			break;
+		case "e":
+			cell.setErrorValue(FormulaError.forString(text).getCode());
+			break;
+		case "n":
+		default:
+			if (!text.isEmpty()) {
+				cell.setNumericValue(Double.parseDouble(text));
+			}
+			break;
+		}
+	}
+
+	static int toColumnIndex(String ref) {
+		int index = 0;
+		for (int i = 0; i < ref.length(); i++) {
+			char c = ref.charAt(i);
+			if ('A' <= c && c <= 'Z') {
+				index = index * 26 + (c - 'A' + 1);
+			} else if ('a' <= c && c <= 'z') {
+				index = index * 26 + (c - 'a' + 1);
+			} else {
+				break;
+			}
+		}
+		return index - 1;
+	}
+}
@@ -0,0 +1,235 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.ooxml.POIXMLTypeLoader;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.xmlbeans.XmlException;
+import org.embulk.parser.poi_excel.visitor.util.PoiExcelCommentIndex;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbookPr;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.WorkbookDocument;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * streaming reader of xlsx by {@link XSSFReader} and SAX.
+ */
+public class PoiExcelXssfStreamingReader extends PoiExcelStreamingReader {
+
+	private final OPCPackage pkg;
+	private final XSSFReader reader;
+	private final List<String> sheetNames = new ArrayList<>();
+	private final SharedStringsStore sharedStringsStore;
+	private final String tempDir;
+
+	private PoiExcelSharedStrings sharedStrings;
+	private StylesTable stylesTable;
+	private Boolean date1904;
+
+	public PoiExcelXssfStreamingReader(File file) {
+		this(file, SharedStringsStore.MEMORY, null);
+	}
+
+	public PoiExcelXssfStreamingReader(File file, SharedStringsStore sharedStringsStore, String tempDir) {
+		this.sharedStringsStore = sharedStringsStore;
+		this.tempDir = tempDir;
+		try {
+			this.pkg = OPCPackage.open(file, PackageAccess.READ);
+		} catch (InvalidFormatException e) {
+			throw new RuntimeException(e);
+		}
+		try {
+			this.reader = new XSSFReader(pkg);
+			XSSFReader.SheetIterator i = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (i.hasNext()) {
+				try (InputStream is = i.next()) {
+					sheetNames.add(i.getSheetName());
+				}
+			}
+		} catch (IOException | OpenXML4JException | RuntimeException e) {
+			pkg.revert();
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public List<String> getSheetNames() {
+		return Collections.unmodifiableList(sheetNames);
+	}
+
+	@Override
+	public boolean isDate1904() {
+		if (date1904 == null) {
+			try (InputStream is = reader.getWorkbookData()) {
+				CTWorkbook workbook = WorkbookDocument.Factory.parse(is, POIXMLTypeLoader.DEFAULT_XML_OPTIONS)
+						.getWorkbook();
+				CTWorkbookPr pr = workbook.getWorkbookPr();
+				this.date1904 = (pr != null) && pr.getDate1904();
+			} catch (IOException | OpenXML4JException | XmlException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return date1904;
+	}
+
+	@Override
+	public void readSheet(String sheetName, PoiExcelStreamingRowHandler handler) {
+		try {
+			XSSFReader.SheetIterator i = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (i.hasNext()) {
+				try (InputStream is = i.next()) {
+					if (i.getSheetName().equals(sheetName)) {
+						PackagePart sheetPart = i.getSheetPart();
+						PoiExcelStreamingRow row = new PoiExcelStreamingRow(new XssfSheetSource(sheetPart));
+						parseSheet(is, new PoiExcelXssfSheetHandler(row, handler));
+						return;
+					}
+				}
+			}
+		} catch (IOException | OpenXML4JException e) {
+			throw new RuntimeException(e);
+		}
+		throw new RuntimeException(MessageFormat.format("not found sheet={0}", sheetName));
+	}
+
+	protected void parseSheet(InputStream is, PoiExcelXssfSheetHandler handler) throws IOException {
+		try {
+			parse(is, handler);
+		} catch (PoiExcelXssfSheetHandler.StopParsingException e) {
+			// the rest of the sheet part is not read
+		}
+	}
+
+	/**
+	 * @param sheetPart sheet part
+	 * @return comments of the sheet
+	 */
+	protected PoiExcelCommentIndex readComments(PackagePart sheetPart) {
+		try {
+			PackageRelationshipCollection relations = sheetPart
+					.getRelationshipsByType(XSSFRelation.SHEET_COMMENTS.getRelation());
+			if (relations.size() == 0) {
+				return PoiExcelCommentIndex.EMPTY;
+			}
+			PackagePart part = sheetPart.getRelatedPart(relations.getRelationship(0));
+			if (part == null) {
+				return PoiExcelCommentIndex.EMPTY;
+			}
+			PoiExcelXssfCommentsHandler handler = new PoiExcelXssfCommentsHandler();
+			try (InputStream is = part.getInputStream()) {
+				parse(is, handler);
+			}
+			return handler.getCommentIndex();
+		} catch (IOException | InvalidFormatException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	protected void parse(InputStream is, DefaultHandler handler) throws IOException {
+		try {
+			XMLReader parser = XMLHelper.newXMLReader();
+			parser.setContentHandler(handler);
+			parser.parse(new InputSource(is));
+		} catch (SAXException e) {
+			if (e.getException() instanceof RuntimeException) {
+				throw (RuntimeException) e.getException();
+			}
+			throw new RuntimeException(e);
+		} catch (ParserConfigurationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	protected PoiExcelSharedStrings getSharedStrings() {
+		if (sharedStrings == null) {
+			this.sharedStrings = sharedStringsStore.open(pkg, tempDir);
+		}
+		return sharedStrings;
+	}
+
+	protected StylesTable getStylesTable() {
+		if (stylesTable == null) {
+			try {
+				this.stylesTable = reader.getStylesTable();
+			} catch (IOException | InvalidFormatException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return stylesTable;
+	}
+
+	@Override
+	public void close() {
+		try {
+			if (sharedStrings != null) {
+				sharedStrings.close();
+			}
+		} finally {
+			pkg.revert();
+		}
+	}
+
+	protected class XssfSheetSource implements PoiExcelStreamingSheetSource {
+		private final PackagePart sheetPart;
+		private PoiExcelCommentIndex comments;
+
+		public XssfSheetSource(PackagePart sheetPart) {
+			this.sheetPart = sheetPart;
+		}
+
+		@Override
+		public String getSharedString(int index) {
+			return getSharedStrings().getString(index);
+		}
+
+		@Override
+		public CellStyle getCellStyle(int styleIndex) {
+			StylesTable styles = getStylesTable();
+			if (styles == null) {
+				return null;
+			}
+			return styles.getStyleAt(styleIndex);
+		}
+
+		@Override
+		public boolean isDateFormat(int styleIndex) {
+			CellStyle style = getCellStyle(styleIndex);
+			if (style == null) {
+				return false;
+			}
+			return DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+		}
+
+		@Override
+		public Comment getCellComment(int rowIndex, int columnIndex) {
+			if (comments == null) {
+				// read at the first cell_comment column
+				this.comments = readComments(sheetPart);
+			}
+			return comments.get(rowIndex, columnIndex);
+		}
+	}
+}
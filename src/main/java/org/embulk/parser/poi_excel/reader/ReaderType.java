@@ -0,0 +1,108 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.embulk.config.ConfigException;
+import org.embulk.parser.poi_excel.PoiExcelColumnValueType;
+import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
+import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean.FormulaHandling;
+import org.embulk.parser.poi_excel.bean.PoiExcelSheetBean;
+import org.embulk.parser.poi_excel.bean.record.RecordType;
+import org.embulk.parser.poi_excel.bean.util.SearchMergedCell;
+
+public enum ReaderType {
+	/** load whole workbook by WorkbookFactory */
+	USER_MODEL {
+		@Override
+		public SearchMergedCell getDefaultSearchMergedCell() {
+			return SearchMergedCell.HASH_SEARCH;
+		}
+
+		@Override
+		public FormulaHandling getDefaultFormulaHandling() {
+			return FormulaHandling.EVALUATE;
+		}
+
+		@Override
+		public void validate(PoiExcelSheetBean sheetBean) {
+			// all options are supported
+		}
+	},
+	/** read rows one by one (xlsx: SAX) */
+	STREAMING {
+		@Override
+		public SearchMergedCell getDefaultSearchMergedCell() {
+			return SearchMergedCell.NONE;
+		}
+
+		@Override
+		public FormulaHandling getDefaultFormulaHandling() {
+			return FormulaHandling.CASHED_VALUE;
+		}
+
+		@Override
+		public void validate(PoiExcelSheetBean sheetBean) {
+			RecordType recordType = sheetBean.getRecordType();
+			if (recordType != RecordType.ROW) {
+				throw new ConfigException(MessageFormat.format("record_type={0} is not supported by reader={1}",
+						recordType.name().toLowerCase(), getName()));
+			}
+
+			for (PoiExcelColumnBean bean : sheetBean.getColumnBeans()) {
+				PoiExcelColumnValueType valueType = bean.getValueType();
+				switch (valueType) {
+				case ROW_NUMBER:
+				case COLUMN_NUMBER:
+				case CONSTANT:
+					break;
+				default:
+					if (bean.getCellAddress() != null) {
+						throw new ConfigException(MessageFormat.format(
+								"cell_address(cell_row) is not supported by reader={0} at {1}", getName(),
+								bean.getColumn()));
+					}
+					break;
+				}
+
+				if (!valueType.useCell(recordType)) {
+					continue;
+				}
+				if (bean.getSearchMergedCell() != SearchMergedCell.NONE) {
+					throw new ConfigException(MessageFormat.format(
+							"search_merged_cell={0} is not supported by reader={1} at {2}", bean.getSearchMergedCell()
+									.name().toLowerCase(), getName(), bean.getColumn()));
+				}
+				FormulaHandling formulaHandling = bean.getFormulaHandling();
+				if (formulaHandling != FormulaHandling.CASHED_VALUE) {
+					throw new ConfigException(MessageFormat.format(
+							"formula_handling={0} is not supported by reader={1} at {2}", formulaHandling.name()
+									.toLowerCase(), getName(), bean.getColumn()));
+				}
+			}
+		}
+	};
+
+	public String getName() {
+		return name().toLowerCase();
+	}
+
+	public abstract SearchMergedCell getDefaultSearchMergedCell();
+
+	public abstract FormulaHandling getDefaultFormulaHandling();
+
+	public abstract void validate(PoiExcelSheetBean sheetBean);
+
+	public static ReaderType of(String value) {
+		try {
+			return ReaderType.valueOf(value.trim().toUpperCase());
+		} catch (Exception e) {
+			List<String> list = new ArrayList<>();
+			for (ReaderType s : ReaderType.values()) {
+				list.add(s.getName());
+			}
+			throw new ConfigException(MessageFormat.format("illegal reader={0}. expected={1}", value, list), e);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package org.embulk.parser.poi_excel.reader;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.embulk.config.ConfigException;
+import org.embulk.parser.poi_excel.PoiExcelSpilledInput;
+import org.xml.sax.SAXException;
+
+/**
+ * where the shared strings of xlsx are kept at reader=streaming.
+ */
+public enum SharedStringsStore {
+	/** on heap */
+	MEMORY {
+		@Override
+		public PoiExcelSharedStrings open(OPCPackage pkg, String tempDir) {
+			final ReadOnlySharedStringsTable table;
+			try {
+				table = new ReadOnlySharedStringsTable(pkg, false);
+			} catch (IOException | SAXException e) {
+				throw new RuntimeException(e);
+			}
+			return new PoiExcelSharedStrings() {
+
+				@Override
+				public String getString(int index) {
+					return table.getItemAt(index).getString();
+				}
+
+				@Override
+				public int getUniqueCount() {
+					return table.getUniqueCount();
+				}
+
+				@Override
+				public void close() {
+					// do nothing
+				}
+			};
+		}
+	},
+	/** memory-mapped temporary file */
+	FILE {
+		@Override
+		public PoiExcelSharedStrings open(OPCPackage pkg, String tempDir) {
+			return new PoiExcelFileSharedStrings(pkg, PoiExcelSpilledInput.createTempFile(tempDir, "poi_excel_sst"));
+		}
+	};
+
+	public String getName() {
+		return name().toLowerCase();
+	}
+
+	public abstract PoiExcelSharedStrings open(OPCPackage pkg, String tempDir);
+
+	public static SharedStringsStore of(String value) {
+		try {
+			return SharedStringsStore.valueOf(value.trim().toUpperCase());
+		} catch (Exception e) {
+			List<String> list = new ArrayList<>();
+			for (SharedStringsStore s : SharedStringsStore.values()) {
+				list.add(s.getName());
+			}
+			throw new ConfigException(MessageFormat.format("illegal shared_strings={0}. expected={1}", value, list),
+					e);
+		}
+	}
+}
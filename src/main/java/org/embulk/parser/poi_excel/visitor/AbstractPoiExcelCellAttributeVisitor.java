@@ -1,8 +1,14 @@
 package org.embulk.parser.poi_excel.visitor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -12,12 +18,17 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Color;
 import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
 import org.embulk.parser.poi_excel.visitor.embulk.CellVisitor;
+import org.embulk.parser.poi_excel.visitor.util.PoiExcelJsonValues;
 import org.embulk.spi.Column;
 import org.embulk.spi.PageBuilder;
+import org.embulk.spi.json.JsonObject;
+import org.embulk.spi.json.JsonValue;
+import org.embulk.spi.type.JsonType;
 import org.embulk.spi.type.StringType;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
 
 public abstract class AbstractPoiExcelCellAttributeVisitor<A> {
 
@@ -47,9 +58,52 @@ public abstract class AbstractPoiExcelCellAttributeVisitor<A> {
 
 	protected abstract A getAttributeSource(PoiExcelColumnBean bean, Cell cell);
 
+	/**
+	 * @param source attribute source
+	 * @return index of the source in the workbook if the attribute values depend only on the source (and the column),
+	 *         or -1 if they are not memoized
+	 */
+	protected int getAttributeSourceIndex(A source) {
+		return -1;
+	}
+
+	private static final Object NULL_VALUE = new Object();
+
+	private Map<Integer, Object>[] memos;
+
+	/**
+	 * @return converted value (or JSON) per source index of the column
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<Integer, Object> getMemo(Column column) {
+		int index = column.getIndex();
+		if (memos == null) {
+			this.memos = new Map[visitorValue.getSheetBean().getColumnBeans().size()];
+		}
+		Map<Integer, Object> memo = memos[index];
+		if (memo == null) {
+			memo = new HashMap<>();
+			memos[index] = memo;
+		}
+		return memo;
+	}
+
 	private void visitKey(PoiExcelColumnBean bean, String key, Cell cell, A source, CellVisitor visitor) {
 		Column column = bean.getColumn();
-		Object value = getAttributeValue(column, cell, source, key);
+		Object value;
+		int sourceIndex = getAttributeSourceIndex(source);
+		if (sourceIndex >= 0) {
+			Map<Integer, Object> memo = getMemo(column);
+			value = memo.get(sourceIndex);
+			if (value == null) {
+				value = getKeyValue(column, cell, source, key);
+				memo.put(sourceIndex, (value != null) ? value : NULL_VALUE);
+			} else if (value == NULL_VALUE) {
+				value = null;
+			}
+		} else {
+			value = getKeyValue(column, cell, source, key);
+		}
 		if (value == null) {
 			pageBuilder.setNull(column);
 		} else if (value instanceof String) {
@@ -60,28 +114,118 @@ public abstract class AbstractPoiExcelCellAttributeVisitor<A> {
 			visitor.visitCellValueBoolean(column, source, (Boolean) value);
 		} else if (value instanceof Double) {
 			visitor.visitCellValueNumeric(column, source, (Double) value);
-		} else if (value instanceof Map) {
-			visitor.visitCellValueString(column, source, convertJsonString(value));
+		} else if (value instanceof JsonValue) {
+			visitor.visitCellValueJson(column, source, (JsonValue) value);
 		} else {
 			throw new IllegalStateException(MessageFormat.format("unsupported conversion. type={0}, value={1}", value
 					.getClass().getName(), value));
 		}
 	}
 
+	private Object getKeyValue(Column column, Cell cell, A source, String key) {
+		Object value = getAttributeValue(column, cell, source, key);
+		if (value == null) {
+			return null;
+		}
+		if (column.getType() instanceof JsonType) {
+			// typed JSON value instead of JSON text
+			return PoiExcelJsonValues.of(value);
+		}
+		if (value instanceof Map) {
+			return getJsonWriter().write((Map<?, ?>) value);
+		}
+		return value;
+	}
+
 	private void visitJson(PoiExcelColumnBean bean, Cell cell, A source, CellVisitor visitor) {
 		Column column = bean.getColumn();
 
-		Map<String, Object> result;
-
-		List<String> list = bean.getAttributeName();
-		if (!list.isEmpty()) {
-			result = getSpecifiedValues(column, cell, source, list);
+		Object json;
+		int sourceIndex = getAttributeSourceIndex(source);
+		if (sourceIndex >= 0) {
+			Map<Integer, Object> memo = getMemo(column);
+			json = memo.get(sourceIndex);
+			if (json == null) {
+				json = getJsonValue(bean, cell, source);
+				memo.put(sourceIndex, json);
+			}
+		} else {
+			json = getJsonValue(bean, cell, source);
+		}
+		if (json instanceof JsonValue) {
+			visitor.visitCellValueJson(column, cell, (JsonValue) json);
 		} else {
-			result = getAllValues(column, cell, source);
+			visitor.visitCellValueString(column, cell, (String) json);
 		}
+	}
 
-		String json = convertJsonString(result);
-		visitor.visitCellValueString(column, cell, json);
+	/**
+	 * @return JsonObject if the column is json, otherwise JSON text
+	 */
+	private Object getJsonValue(PoiExcelColumnBean bean, Cell cell, A source) {
+		Column column = bean.getColumn();
+		AttributeProjection<A> projection = getAttributeProjection(bean);
+		if (column.getType() instanceof JsonType) {
+			JsonValue[] values = new JsonValue[projection.keys.length];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = PoiExcelJsonValues.of(getAttributeValue(column, cell, source, projection.suppliers[i]));
+			}
+			return JsonObject.ofUnsafe(projection.keys, values);
+		}
+		return getJsonWriter().write(projection, column, cell, source);
+	}
+
+	private AttributeProjection<A>[] projections;
+
+	/**
+	 * @return attributes of the column which are resolved at the first call
+	 */
+	@SuppressWarnings("unchecked")
+	protected final AttributeProjection<A> getAttributeProjection(PoiExcelColumnBean bean) {
+		int index = bean.getColumn().getIndex();
+		if (projections == null) {
+			this.projections = new AttributeProjection[visitorValue.getSheetBean().getColumnBeans().size()];
+		}
+		AttributeProjection<A> projection = projections[index];
+		if (projection == null) {
+			List<String> list = bean.getAttributeName();
+			if (!list.isEmpty()) {
+				// same keys as getSpecifiedValues() (duplicates are written once)
+				projection = new AttributeProjection<>(new ArrayList<>(new LinkedHashSet<>(list)),
+						getAttributeSupplierMap());
+			} else {
+				List<String> keys = new ArrayList<>();
+				for (String key : new TreeSet<>(getAttributeSupplierMap().keySet())) {
+					if (acceptKey(key)) {
+						keys.add(key);
+					}
+				}
+				projection = new AttributeProjection<>(keys, getAttributeSupplierMap());
+			}
+			projections[index] = projection;
+		}
+		return projection;
+	}
+
+	/**
+	 * attribute names and suppliers of a column.
+	 */
+	protected static final class AttributeProjection<A> {
+		private final String[] keys;
+		private final SerializedString[] names;
+		private final AttributeSupplier<A>[] suppliers;
+
+		@SuppressWarnings("unchecked")
+		public AttributeProjection(List<String> keys, Map<String, AttributeSupplier<A>> map) {
+			this.keys = keys.toArray(new String[keys.size()]);
+			this.names = new SerializedString[keys.size()];
+			this.suppliers = new AttributeSupplier[keys.size()];
+			for (int i = 0; i < keys.size(); i++) {
+				String key = keys.get(i);
+				names[i] = new SerializedString(key);
+				suppliers[i] = getAttributeSupplier(map, key);
+			}
+		}
 	}
 
 	protected final Map<String, Object> getSpecifiedValues(Column column, Cell cell, A source, List<String> keyList) {
@@ -114,12 +258,20 @@ public abstract class AbstractPoiExcelCellAttributeVisitor<A> {
 	}
 
 	protected final Object getAttributeValue(Column column, Cell cell, A source, String key) {
-		Map<String, AttributeSupplier<A>> map = getAttributeSupplierMap();
+		AttributeSupplier<A> supplier = getAttributeSupplier(getAttributeSupplierMap(), key);
+		return getAttributeValue(column, cell, source, supplier);
+	}
+
+	private static <A> AttributeSupplier<A> getAttributeSupplier(Map<String, AttributeSupplier<A>> map, String key) {
 		AttributeSupplier<A> supplier = map.get(key.toLowerCase());
 		if (supplier == null) {
 			throw new UnsupportedOperationException(MessageFormat.format(
 					"unsupported attribute name={0}, choose in {1}", key, new TreeSet<>(map.keySet())));
 		}
+		return supplier;
+	}
+
+	protected final Object getAttributeValue(Column column, Cell cell, A source, AttributeSupplier<A> supplier) {
 		Object value = supplier.get(column, cell, source);
 
 		if (value instanceof Color) {
@@ -143,12 +295,113 @@ public abstract class AbstractPoiExcelCellAttributeVisitor<A> {
 
 	protected abstract Map<String, AttributeSupplier<A>> getAttributeSupplierMap();
 
-	protected final String convertJsonString(Object result) {
-		try {
-			ObjectMapper mapper = new ObjectMapper();
-			return mapper.writeValueAsString(result);
-		} catch (JsonProcessingException e) {
-			throw new RuntimeException(e);
+	private JsonWriter jsonWriter;
+
+	protected final JsonWriter getJsonWriter() {
+		if (jsonWriter == null) {
+			this.jsonWriter = new JsonWriter();
+		}
+		return jsonWriter;
+	}
+
+	/**
+	 * writes JSON by one {@link JsonGenerator} into a reused buffer (same output as ObjectMapper).
+	 */
+	protected final class JsonWriter {
+		private final StringBuilderWriter buffer = new StringBuilderWriter();
+		private final JsonGenerator generator;
+
+		public JsonWriter() {
+			try {
+				this.generator = JSON_FACTORY.createGenerator(buffer);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			generator.setRootValueSeparator(null);
+		}
+
+		public String write(AttributeProjection<A> projection, Column column, Cell cell, A source) {
+			try {
+				generator.writeStartObject();
+				for (int i = 0; i < projection.names.length; i++) {
+					generator.writeFieldName(projection.names[i]);
+					writeValue(getAttributeValue(column, cell, source, projection.suppliers[i]));
+				}
+				generator.writeEndObject();
+				return flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		public String write(Map<?, ?> map) {
+			try {
+				writeValue(map);
+				return flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private void writeValue(Object value) throws IOException {
+			if (value == null) {
+				generator.writeNull();
+			} else if (value instanceof String) {
+				generator.writeString((String) value);
+			} else if (value instanceof Long) {
+				generator.writeNumber((Long) value);
+			} else if (value instanceof Boolean) {
+				generator.writeBoolean((Boolean) value);
+			} else if (value instanceof Double) {
+				generator.writeNumber((Double) value);
+			} else if (value instanceof Map) {
+				generator.writeStartObject();
+				for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+					generator.writeFieldName(String.valueOf(entry.getKey()));
+					writeValue(entry.getValue());
+				}
+				generator.writeEndObject();
+			} else {
+				throw new IllegalStateException(MessageFormat.format("unsupported conversion. type={0}, value={1}",
+						value.getClass().getName(), value));
+			}
+		}
+
+		private String flush() throws IOException {
+			generator.flush();
+			String s = buffer.getBuilder().toString();
+			buffer.getBuilder().setLength(0);
+			return s;
+		}
+	}
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private static final class StringBuilderWriter extends Writer {
+		private final StringBuilder builder = new StringBuilder(256);
+
+		public StringBuilder getBuilder() {
+			return builder;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			builder.append(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) {
+			builder.append(str, off, off + len);
+		}
+
+		@Override
+		public void flush() {
+			// do nothing
+		}
+
+		@Override
+		public void close() {
+			// do nothing
 		}
 	}
 }
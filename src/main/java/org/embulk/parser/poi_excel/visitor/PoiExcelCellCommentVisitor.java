@@ -8,7 +8,9 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.ClientAnchor;
 import org.apache.poi.ss.usermodel.Comment;
 import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
+import org.embulk.parser.poi_excel.visitor.util.PoiExcelCommentIndex;
 import org.embulk.spi.Column;
 
 public class PoiExcelCellCommentVisitor extends AbstractPoiExcelCellAttributeVisitor<Comment> {
@@ -19,7 +21,13 @@ public class PoiExcelCellCommentVisitor extends AbstractPoiExcelCellAttributeVis
 
 	@Override
 	protected Comment getAttributeSource(PoiExcelColumnBean bean, Cell cell) {
-		return cell.getCellComment();
+		Sheet sheet = cell.getSheet();
+		if (sheet == null) { // reader=streaming
+			return cell.getCellComment();
+		}
+		// the comments of the sheet are indexed once instead of searching the drawing for each cell
+		PoiExcelCommentIndex index = visitorValue.getWorkbookContext().getCommentIndex(sheet);
+		return index.get(cell.getRowIndex(), cell.getColumnIndex());
 	}
 
 	protected boolean acceptKey(String key) {
@@ -8,6 +8,7 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
 import org.embulk.spi.Column;
@@ -21,11 +22,22 @@ public class PoiExcelCellFontVisitor extends AbstractPoiExcelCellAttributeVisito
 	@Override
 	protected Font getAttributeSource(PoiExcelColumnBean bean, Cell cell) {
 		CellStyle style = cell.getCellStyle();
+		if (style == null) {
+			return null;
+		}
+		if (style instanceof XSSFCellStyle) {
+			return ((XSSFCellStyle) style).getFont();
+		}
 		int index = style.getFontIndex();
 		Workbook book = visitorValue.getSheet().getWorkbook();
 		return book.getFontAt(index);
 	}
 
+	@Override
+	protected int getAttributeSourceIndex(Font font) {
+		return font.getIndex();
+	}
+
 	@Override
 	protected Map<String, AttributeSupplier<Font>> getAttributeSupplierMap() {
 		return SUPPLIER_MAP;
@@ -23,6 +23,11 @@ public class PoiExcelCellStyleVisitor extends AbstractPoiExcelCellAttributeVisit
 		return cell.getCellStyle();
 	}
 
+	@Override
+	protected int getAttributeSourceIndex(CellStyle style) {
+		return style.getIndex() & 0xffff;
+	}
+
 	protected boolean acceptKey(String key) {
 		if (key.equals("border")) {
 			return false;
@@ -1,24 +1,20 @@
 package org.embulk.parser.poi_excel.visitor;
 
 import java.text.MessageFormat;
-import java.util.List;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.CellValue;
-import org.apache.poi.ss.usermodel.CreationHelper;
 import org.apache.poi.ss.usermodel.FormulaError;
-import org.apache.poi.ss.usermodel.FormulaEvaluator;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.ss.util.CellReference;
 import org.embulk.parser.poi_excel.PoiExcelColumnValueType;
-import org.embulk.parser.poi_excel.PoiExcelParserPlugin.FormulaReplaceTask;
 import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
 import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean.ErrorStrategy;
 import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean.FormulaHandling;
+import org.embulk.parser.poi_excel.bean.util.PoiExcelFormulaReplace;
+import org.embulk.parser.poi_excel.bean.util.SearchMergedCell;
 import org.embulk.parser.poi_excel.visitor.embulk.CellVisitor;
 import org.embulk.parser.poi_excel.visitor.util.MergedRegionFinder;
 import org.embulk.spi.Column;
@@ -101,11 +97,16 @@ public class PoiExcelCellValueVisitor {
 	}
 
 	protected CellRangeAddress findRegion(PoiExcelColumnBean bean, Cell cell) {
+		SearchMergedCell search = bean.getSearchMergedCell();
+		if (search == SearchMergedCell.NONE) {
+			return null;
+		}
+
 		Sheet sheet = cell.getSheet();
 		int r = cell.getRowIndex();
 		int c = cell.getColumnIndex();
 
-		MergedRegionFinder finder = bean.getMergedRegionFinder();
+		MergedRegionFinder finder = visitorValue.getWorkbookContext().getMergedRegionFinder(search);
 		return finder.get(sheet, r, c);
 	}
 
@@ -117,12 +118,33 @@ public class PoiExcelCellValueVisitor {
 		case CASHED_VALUE:
 			visitCellValueFormulaCashedValue(bean, cell, visitor);
 			break;
+		case CACHED_THEN_EVALUATE:
+			if (isCachedFormulaResultAvailable(bean, cell)) {
+				bean.incrementFormulaCachedCount();
+				visitCellValueFormulaCashedValue(bean, cell, visitor);
+			} else {
+				bean.incrementFormulaEvaluatedCount();
+				visitCellValueFormulaEvaluate(bean, cell, visitor);
+			}
+			break;
 		default:
 			visitCellValueFormulaEvaluate(bean, cell, visitor);
 			break;
 		}
 	}
 
+	protected boolean isCachedFormulaResultAvailable(PoiExcelColumnBean bean, Cell cell) {
+		PoiExcelFormulaReplace replace = bean.getCompiledFormulaReplace();
+		if (!replace.isEmpty()) {
+			String formula = cell.getCellFormula();
+			if (!replace.replace(formula, cell.getRowIndex(), cell.getColumnIndex()).equals(formula)) {
+				// the cached result is of the original formula
+				return false;
+			}
+		}
+		return visitorValue.getWorkbookContext().hasCachedFormulaResult(cell);
+	}
+
 	protected void visitCellValueFormulaCashedValue(PoiExcelColumnBean bean, Cell cell, CellVisitor visitor) {
 		Column column = bean.getColumn();
 
@@ -152,30 +174,16 @@ public class PoiExcelCellValueVisitor {
 	protected void visitCellValueFormulaEvaluate(PoiExcelColumnBean bean, Cell cell, CellVisitor visitor) {
 		Column column = bean.getColumn();
 
-		List<FormulaReplaceTask> list = bean.getFormulaReplace();
-		if (!list.isEmpty()) {
-			String formula = cell.getCellFormula();
-			String old = formula;
-
-			for (FormulaReplaceTask replace : list) {
-				String regex = replace.getRegex();
-				String replacement = replace.getTo();
-
-				if (replacement.contains("${row}")) {
-					replacement = replacement.replace("${row}", Integer.toString(cell.getRowIndex() + 1));
-				}
-				if (replacement.contains("${column}")) {
-					replacement = replacement.replace("${column}",
-							CellReference.convertNumToColString(cell.getColumnIndex() + 1));
-				}
-
-				formula = formula.replaceAll(regex, replacement);
-			}
+		PoiExcelFormulaReplace replace = bean.getCompiledFormulaReplace();
+		if (!replace.isEmpty()) {
+			String old = cell.getCellFormula();
+			String formula = replace.replace(old, cell.getRowIndex(), cell.getColumnIndex());
 
 			if (!formula.equals(old)) {
 				logger.debug("formula replaced. old=\"{}\", new=\"{}\"", old, formula);
 				try {
-					cell.setCellFormula(formula);
+					// invalidates the cached results which depend on the cell
+					visitorValue.getWorkbookContext().setCellFormula(cell, formula);
 				} catch (Exception e) {
 					throw new RuntimeException(MessageFormat.format("setCellFormula error. formula={0}", formula), e);
 				}
@@ -184,10 +192,7 @@ public class PoiExcelCellValueVisitor {
 
 		CellValue cellValue;
 		try {
-			Workbook book = cell.getSheet().getWorkbook();
-			CreationHelper helper = book.getCreationHelper();
-			FormulaEvaluator evaluator = helper.createFormulaEvaluator();
-			cellValue = evaluator.evaluate(cell);
+			cellValue = visitorValue.getWorkbookContext().evaluate(cell);
 		} catch (Exception e) {
 			ErrorStrategy strategy = bean.getEvaluateErrorStrategy();
 			switch (strategy.getStrategy()) {
@@ -0,0 +1,50 @@
+package org.embulk.parser.poi_excel.visitor;
+
+import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
+import org.embulk.parser.poi_excel.bean.record.PoiExcelRecord;
+import org.embulk.parser.poi_excel.visitor.embulk.CellVisitor;
+import org.embulk.spi.Column;
+
+/**
+ * compiled access of one column.
+ * <p>
+ * created once per sheet by {@link PoiExcelColumnVisitor#newColumnAccessor(Column)}. the value type, the address mode
+ * and the Embulk type are resolved at creation, so {@link #visit(PoiExcelRecord)} does not dispatch on them per row.
+ * </p>
+ */
+public abstract class PoiExcelColumnAccessor {
+
+	protected final Column column;
+	protected final PoiExcelColumnBean bean;
+	protected final CellVisitor visitor;
+
+	public PoiExcelColumnAccessor(Column column, PoiExcelColumnBean bean, CellVisitor visitor) {
+		this.column = column;
+		this.bean = bean;
+		this.visitor = visitor;
+	}
+
+	public final Column getColumn() {
+		return column;
+	}
+
+	public final PoiExcelColumnBean getColumnBean() {
+		return bean;
+	}
+
+	public abstract void visit(PoiExcelRecord record);
+
+	/**
+	 * @return true if the column reads the cell of the record (not a fixed cell address)
+	 */
+	public boolean usesRecordCell() {
+		return false;
+	}
+
+	/**
+	 * @return true if the column has no value in the record (used by skip_empty_rows and stop_on_blank_rows)
+	 */
+	public boolean isEmpty(PoiExcelRecord record) {
+		return true;
+	}
+}
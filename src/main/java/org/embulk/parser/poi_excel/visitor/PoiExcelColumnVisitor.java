@@ -1,6 +1,8 @@
 package org.embulk.parser.poi_excel.visitor;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
@@ -13,6 +15,12 @@ import org.embulk.parser.poi_excel.visitor.embulk.CellVisitor;
 import org.embulk.spi.Column;
 import org.embulk.spi.ColumnVisitor;
 import org.embulk.spi.PageBuilder;
+import org.embulk.spi.type.BooleanType;
+import org.embulk.spi.type.DoubleType;
+import org.embulk.spi.type.JsonType;
+import org.embulk.spi.type.LongType;
+import org.embulk.spi.type.TimestampType;
+import org.embulk.spi.type.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,166 +43,352 @@ public class PoiExcelColumnVisitor implements ColumnVisitor {
 		this.record = record;
 	}
 
+	private PoiExcelColumnAccessor[] accessors;
+
+	/**
+	 * @return accessors of all columns. created at the first call
+	 */
+	public final PoiExcelColumnAccessor[] getColumnAccessors() {
+		if (accessors == null) {
+			List<PoiExcelColumnBean> beans = visitorValue.getSheetBean().getColumnBeans();
+			PoiExcelColumnAccessor[] array = new PoiExcelColumnAccessor[beans.size()];
+			for (PoiExcelColumnBean bean : beans) {
+				Column column = bean.getColumn();
+				array[column.getIndex()] = newColumnAccessor(column);
+			}
+			this.accessors = array;
+		}
+		return accessors;
+	}
+
+	/**
+	 * visit all columns of the current record. same as {@code schema.visitColumns(this)}.
+	 */
+	public void visitRecord() {
+		PoiExcelColumnAccessor[] accessors = getColumnAccessors();
+		if (logger.isTraceEnabled()) {
+			for (PoiExcelColumnAccessor accessor : accessors) {
+				logger.trace("{} start", accessor.getColumn());
+				visit(accessor);
+				logger.trace("{} end", accessor.getColumn());
+			}
+			return;
+		}
+
+		for (PoiExcelColumnAccessor accessor : accessors) {
+			visit(accessor);
+		}
+	}
+
 	@Override
 	public final void booleanColumn(Column column) {
-		visitCell0(column, factory.getBooleanCellVisitor());
+		visitColumn(column);
 	}
 
 	@Override
 	public final void longColumn(Column column) {
-		visitCell0(column, factory.getLongCellVisitor());
+		visitColumn(column);
 	}
 
 	@Override
 	public final void doubleColumn(Column column) {
-		visitCell0(column, factory.getDoubleCellVisitor());
+		visitColumn(column);
 	}
 
 	@Override
 	public final void stringColumn(Column column) {
-		visitCell0(column, factory.getStringCellVisitor());
+		visitColumn(column);
 	}
 
 	@Override
 	public final void timestampColumn(Column column) {
-		visitCell0(column, factory.getTimestampCellVisitor());
+		visitColumn(column);
 	}
 
 	@Override
 	public final void jsonColumn(Column column) {
-		visitCell0(column, factory.getStringCellVisitor());
+		visitColumn(column);
 	}
 
-		protected final void visitCell0(Column column, CellVisitor visitor) {
+	protected final void visitColumn(Column column) {
+		PoiExcelColumnAccessor accessor = getColumnAccessors()[column.getIndex()];
 		if (logger.isTraceEnabled()) {
 			logger.trace("{} start", column);
 		}
+		visit(accessor);
+		if (logger.isTraceEnabled()) {
+			logger.trace("{} end", column);
+		}
+	}
+
+	protected final void visit(PoiExcelColumnAccessor accessor) {
 		try {
-			visitCell(column, visitor);
+			accessor.visit(record);
 		} catch (Exception e) {
-			String sheetName = visitorValue.getSheet().getSheetName();
-			String ref = record.getCellReference(visitorValue.getColumnBean(column)).formatAsString();
+			Column column = accessor.getColumn();
+			String sheetName = visitorValue.getSheetName();
+			String ref = record.getCellReference(accessor.getColumnBean()).formatAsString();
 			throw new RuntimeException(MessageFormat.format("error at {0} cell={1}!{2}. {3}", column, sheetName, ref,
 					e.getMessage()), e);
 		}
-		if (logger.isTraceEnabled()) {
-			logger.trace("{} end", column);
+	}
+
+	protected CellVisitor getCellVisitor(Column column) {
+		Type type = column.getType();
+		if (type instanceof BooleanType) {
+			return factory.getBooleanCellVisitor();
+		} else if (type instanceof LongType) {
+			return factory.getLongCellVisitor();
+		} else if (type instanceof DoubleType) {
+			return factory.getDoubleCellVisitor();
+		} else if (type instanceof TimestampType) {
+			return factory.getTimestampCellVisitor();
+		} else if (type instanceof JsonType) {
+			return factory.getJsonCellVisitor();
+		} else {
+			return factory.getStringCellVisitor();
 		}
 	}
 
-	protected void visitCell(Column column, CellVisitor visitor) {
-		PoiExcelColumnBean bean = visitorValue.getColumnBean(column);
-		PoiExcelColumnValueType valueType = bean.getValueType();
-		PoiExcelCellAddress cellAddress = bean.getCellAddress();
+	/**
+	 * resolve the value type and the address mode of the column.
+	 */
+	protected PoiExcelColumnAccessor newColumnAccessor(Column column) {
+		final PoiExcelColumnBean bean = visitorValue.getColumnBean(column);
+		final CellVisitor visitor = getCellVisitor(column);
+		final PoiExcelColumnValueType valueType = bean.getValueType();
+		final PoiExcelCellAddress cellAddress = bean.getCellAddress();
 
 		switch (valueType) {
 		case SHEET_NAME:
 			if (cellAddress != null) {
-				Sheet sheet = cellAddress.getSheet(record);
-				visitor.visitSheetName(column, sheet);
-			} else {
-				visitor.visitSheetName(column);
+				return new PoiExcelColumnAccessor(column, bean, visitor) {
+
+					@Override
+					public void visit(PoiExcelRecord record) {
+						Sheet sheet = cellAddress.getSheet(record);
+						visitor.visitSheetName(column, sheet);
+					}
+				};
 			}
-			return;
+			return new PoiExcelColumnAccessor(column, bean, visitor) {
+
+				@Override
+				public void visit(PoiExcelRecord record) {
+					visitor.visitSheetName(column);
+				}
+			};
 		case ROW_NUMBER:
-			int rowIndex;
 			if (cellAddress != null) {
-				rowIndex = cellAddress.getRowIndex();
-			} else {
-				rowIndex = record.getRowIndex(bean);
+				final int rowNumber = cellAddress.getRowIndex() + 1;
+				return new PoiExcelColumnAccessor(column, bean, visitor) {
+
+					@Override
+					public void visit(PoiExcelRecord record) {
+						visitor.visitRowNumber(column, rowNumber);
+					}
+				};
 			}
-			visitor.visitRowNumber(column, rowIndex + 1);
-			return;
+			return new PoiExcelColumnAccessor(column, bean, visitor) {
+
+				@Override
+				public void visit(PoiExcelRecord record) {
+					visitor.visitRowNumber(column, record.getRowIndex(bean) + 1);
+				}
+			};
 		case COLUMN_NUMBER:
-			int columnIndex;
 			if (cellAddress != null) {
-				columnIndex = cellAddress.getColumnIndex();
-			} else {
-				columnIndex = record.getColumnIndex(bean);
+				final int columnNumber = cellAddress.getColumnIndex() + 1;
+				return new PoiExcelColumnAccessor(column, bean, visitor) {
+
+					@Override
+					public void visit(PoiExcelRecord record) {
+						visitor.visitColumnNumber(column, columnNumber);
+					}
+				};
 			}
-			visitor.visitColumnNumber(column, columnIndex + 1);
-			return;
+			return new PoiExcelColumnAccessor(column, bean, visitor) {
+
+				@Override
+				public void visit(PoiExcelRecord record) {
+					visitor.visitColumnNumber(column, record.getColumnIndex(bean) + 1);
+				}
+			};
 		case CONSTANT:
-			visitCellConstant(column, bean.getValueTypeSuffix(), visitor);
-			return;
+			final String value = bean.getValueTypeSuffix();
+			return new PoiExcelColumnAccessor(column, bean, visitor) {
+
+				@Override
+				public void visit(PoiExcelRecord record) {
+					visitCellConstant(column, value, visitor);
+				}
+			};
 		default:
 			break;
 		}
 
 		// assert valueType.useCell();
-		Cell cell;
-		if (cellAddress != null) {
-			cell = cellAddress.getCell(record);
-		} else {
-			cell = record.getCell(bean);
-		}
-		if (cell == null) {
-			visitCellNull(column);
-			return;
-		}
 		switch (valueType) {
 		case CELL_VALUE:
 		case CELL_FORMULA:
-			visitCellValue(bean, cell, visitor);
-			return;
+			final PoiExcelCellValueVisitor valueVisitor = factory.getPoiExcelCellValueVisitor();
+			return new CellAccessor(column, bean, visitor) {
+
+				@Override
+				protected void visitCell(Cell cell) {
+					valueVisitor.visitCellValue(bean, cell, visitor);
+				}
+
+				@Override
+				protected boolean isEmptyBlank(Cell cell) {
+					// the value of the merged region
+					return valueVisitor.findRegion(bean, cell) == null;
+				}
+			};
 		case CELL_STYLE:
-			visitCellStyle(bean, cell, visitor);
-			return;
+			final PoiExcelCellStyleVisitor styleVisitor = factory.getPoiExcelCellStyleVisitor();
+			return new CellAccessor(column, bean, visitor) {
+
+				@Override
+				protected void visitCell(Cell cell) {
+					styleVisitor.visit(bean, cell, visitor);
+				}
+			};
 		case CELL_FONT:
-			visitCellFont(bean, cell, visitor);
-			return;
+			final PoiExcelCellFontVisitor fontVisitor = factory.getPoiExcelCellFontVisitor();
+			return new CellAccessor(column, bean, visitor) {
+
+				@Override
+				protected void visitCell(Cell cell) {
+					fontVisitor.visit(bean, cell, visitor);
+				}
+			};
 		case CELL_COMMENT:
-			visitCellComment(bean, cell, visitor);
-			return;
+			final PoiExcelCellCommentVisitor commentVisitor = factory.getPoiExcelCellCommentVisitor();
+			return new CellAccessor(column, bean, visitor) {
+
+				@Override
+				protected void visitCell(Cell cell) {
+					commentVisitor.visit(bean, cell, visitor);
+				}
+			};
 		case CELL_TYPE:
-			visitCellType(bean, cell, cell.getCellType(), visitor);
-			return;
+			final PoiExcelCellTypeVisitor typeVisitor = factory.getPoiExcelCellTypeVisitor();
+			return new CellAccessor(column, bean, visitor) {
+
+				@Override
+				protected void visitCell(Cell cell) {
+					typeVisitor.visit(bean, cell, cell.getCellType(), visitor);
+				}
+			};
 		case CELL_CACHED_TYPE:
-			if (cell.getCellType() == CellType.FORMULA) {
-				visitCellType(bean, cell, cell.getCachedFormulaResultType(), visitor);
-			} else {
-				visitCellType(bean, cell, cell.getCellType(), visitor);
-			}
-			return;
+			final PoiExcelCellTypeVisitor cachedTypeVisitor = factory.getPoiExcelCellTypeVisitor();
+			return new CellAccessor(column, bean, visitor) {
+
+				@Override
+				protected void visitCell(Cell cell) {
+					if (cell.getCellType() == CellType.FORMULA) {
+						cachedTypeVisitor.visit(bean, cell, cell.getCachedFormulaResultType(), visitor);
+					} else {
+						cachedTypeVisitor.visit(bean, cell, cell.getCellType(), visitor);
+					}
+				}
+			};
 		default:
 			throw new UnsupportedOperationException(MessageFormat.format("unsupported value_type={0}", valueType));
 		}
 	}
 
-	protected void visitCellConstant(Column column, String value, CellVisitor visitor) {
-		if (value == null) {
-			pageBuilder.setNull(column);
-			return;
+	private PoiExcelColumnAccessor[] recordCellAccessors;
+
+	/**
+	 * @return true if all cells of the record referenced by the columns are empty. false if no column reads the cells
+	 *         of the record
+	 */
+	public boolean isEmptyRecord() {
+		if (recordCellAccessors == null) {
+			List<PoiExcelColumnAccessor> list = new ArrayList<>();
+			for (PoiExcelColumnAccessor accessor : getColumnAccessors()) {
+				if (accessor.usesRecordCell()) {
+					list.add(accessor);
+				}
+			}
+			this.recordCellAccessors = list.toArray(new PoiExcelColumnAccessor[list.size()]);
+		}
+		if (recordCellAccessors.length == 0) {
+			return false;
 		}
-		visitor.visitCellValueString(column, null, value);
-	}
 
-	protected void visitCellNull(Column column) {
-		pageBuilder.setNull(column);
+		for (PoiExcelColumnAccessor accessor : recordCellAccessors) {
+			if (!accessor.isEmpty(record)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
-	private void visitCellValue(PoiExcelColumnBean bean, Cell cell, CellVisitor visitor) {
-		PoiExcelCellValueVisitor delegator = factory.getPoiExcelCellValueVisitor();
-		delegator.visitCellValue(bean, cell, visitor);
-	}
+	protected abstract class CellAccessor extends PoiExcelColumnAccessor {
+		private final PoiExcelCellAddress cellAddress;
 
-	private void visitCellStyle(PoiExcelColumnBean bean, Cell cell, CellVisitor visitor) {
-		PoiExcelCellStyleVisitor delegator = factory.getPoiExcelCellStyleVisitor();
-		delegator.visit(bean, cell, visitor);
-	}
+		public CellAccessor(Column column, PoiExcelColumnBean bean, CellVisitor visitor) {
+			super(column, bean, visitor);
+			this.cellAddress = bean.getCellAddress();
+		}
 
-	private void visitCellFont(PoiExcelColumnBean bean, Cell cell, CellVisitor visitor) {
-		PoiExcelCellFontVisitor delegator = factory.getPoiExcelCellFontVisitor();
-		delegator.visit(bean, cell, visitor);
+		@Override
+		public final void visit(PoiExcelRecord record) {
+			Cell cell;
+			if (cellAddress != null) {
+				cell = cellAddress.getCell(record);
+			} else {
+				cell = record.getCell(bean);
+			}
+			if (cell == null) {
+				visitCellNull(column);
+				return;
+			}
+			visitCell(cell);
+		}
+
+		protected abstract void visitCell(Cell cell);
+
+		@Override
+		public boolean usesRecordCell() {
+			return cellAddress == null;
+		}
+
+		@Override
+		public boolean isEmpty(PoiExcelRecord record) {
+			if (cellAddress != null) {
+				return true;
+			}
+			Cell cell = record.getCell(bean);
+			if (cell == null) {
+				return true;
+			}
+			if (cell.getCellType() == CellType.BLANK) {
+				return isEmptyBlank(cell);
+			}
+			return false;
+		}
+
+		/**
+		 * @return true if the blank cell has no value (the style etc. of a blank cell are values)
+		 */
+		protected boolean isEmptyBlank(Cell cell) {
+			return false;
+		}
 	}
 
-	private void visitCellComment(PoiExcelColumnBean bean, Cell cell, CellVisitor visitor) {
-		PoiExcelCellCommentVisitor delegator = factory.getPoiExcelCellCommentVisitor();
-		delegator.visit(bean, cell, visitor);
+	protected void visitCellConstant(Column column, String value, CellVisitor visitor) {
+		if (value == null) {
+			pageBuilder.setNull(column);
+			return;
+		}
+		visitor.visitCellValueString(column, null, value);
 	}
 
-	private void visitCellType(PoiExcelColumnBean bean, Cell cell, CellType cellType, CellVisitor visitor) {
-		PoiExcelCellTypeVisitor delegator = factory.getPoiExcelCellTypeVisitor();
-		delegator.visit(bean, cell, cellType, visitor);
+	protected void visitCellNull(Column column) {
+		pageBuilder.setNull(column);
 	}
 }
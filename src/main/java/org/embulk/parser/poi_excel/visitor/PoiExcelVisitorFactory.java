@@ -2,6 +2,7 @@ package org.embulk.parser.poi_excel.visitor;
 
 import org.embulk.parser.poi_excel.visitor.embulk.BooleanCellVisitor;
 import org.embulk.parser.poi_excel.visitor.embulk.DoubleCellVisitor;
+import org.embulk.parser.poi_excel.visitor.embulk.JsonCellVisitor;
 import org.embulk.parser.poi_excel.visitor.embulk.LongCellVisitor;
 import org.embulk.parser.poi_excel.visitor.embulk.StringCellVisitor;
 import org.embulk.parser.poi_excel.visitor.embulk.TimestampCellVisitor;
@@ -103,6 +104,20 @@ public class PoiExcelVisitorFactory {
 		return new TimestampCellVisitor(visitorValue);
 	}
 
+	// Embulk json
+	private JsonCellVisitor jsonCellVisitor;
+
+	public final JsonCellVisitor getJsonCellVisitor() {
+		if (jsonCellVisitor == null) {
+			jsonCellVisitor = newJsonCellVisitor();
+		}
+		return jsonCellVisitor;
+	}
+
+	protected JsonCellVisitor newJsonCellVisitor() {
+		return new JsonCellVisitor(visitorValue);
+	}
+
 	// cell value/formula
 	private PoiExcelCellValueVisitor poiExcelCellValueVisitor;
 
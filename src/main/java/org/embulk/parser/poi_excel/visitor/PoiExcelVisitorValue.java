@@ -2,34 +2,96 @@ package org.embulk.parser.poi_excel.visitor;
 
 import org.apache.poi.ss.usermodel.Sheet;
 import org.embulk.parser.poi_excel.PoiExcelParserPlugin.PluginTask;
+import org.embulk.parser.poi_excel.PoiExcelWorkbookContext;
 import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
 import org.embulk.parser.poi_excel.bean.PoiExcelSheetBean;
+import org.embulk.parser.poi_excel.reader.ReaderType;
 import org.embulk.spi.Column;
 import org.embulk.spi.PageBuilder;
 import org.embulk.spi.Schema;
 
 public class PoiExcelVisitorValue {
 	private final PluginTask task;
+	private final PoiExcelWorkbookContext context;
 	private final Sheet sheet;
+	private final String sheetName;
+	private final int sheetIndex;
+	private final boolean date1904;
 	private final PageBuilder pageBuilder;
 	private final PoiExcelSheetBean sheetBean;
 	private PoiExcelVisitorFactory factory;
 
-	public PoiExcelVisitorValue(PluginTask task, Schema schema, Sheet sheet, PageBuilder pageBuilder) {
+	public PoiExcelVisitorValue(PluginTask task, Schema schema, PoiExcelWorkbookContext context, Sheet sheet,
+			PageBuilder pageBuilder) {
 		this.task = task;
+		this.context = context;
 		this.sheet = sheet;
+		this.sheetName = sheet.getSheetName();
+		this.sheetIndex = sheet.getWorkbook().getSheetIndex(sheet);
+		this.date1904 = context.isDate1904();
 		this.pageBuilder = pageBuilder;
-		this.sheetBean = new PoiExcelSheetBean(task, schema, sheet);
+		this.sheetBean = new PoiExcelSheetBean(task, schema, sheetName, ReaderType.USER_MODEL);
+	}
+
+	// row_parallelism
+	public PoiExcelVisitorValue(PluginTask task, PoiExcelWorkbookContext context, Sheet sheet,
+			PageBuilder pageBuilder, PoiExcelSheetBean sheetBean) {
+		this.task = task;
+		this.context = context;
+		this.sheet = sheet;
+		this.sheetName = sheet.getSheetName();
+		this.sheetIndex = sheet.getWorkbook().getSheetIndex(sheet);
+		this.date1904 = context.isDate1904();
+		this.pageBuilder = pageBuilder;
+		this.sheetBean = sheetBean;
+	}
+
+	// reader=streaming
+	public PoiExcelVisitorValue(PluginTask task, Schema schema, String sheetName, int sheetIndex, boolean date1904,
+			PageBuilder pageBuilder) {
+		this.task = task;
+		this.context = null;
+		this.sheet = null;
+		this.sheetName = sheetName;
+		this.sheetIndex = sheetIndex;
+		this.date1904 = date1904;
+		this.pageBuilder = pageBuilder;
+		this.sheetBean = new PoiExcelSheetBean(task, schema, sheetName, ReaderType.STREAMING);
 	}
 
 	public PluginTask getPluginTask() {
 		return task;
 	}
 
+	/**
+	 * @return workbook context. null if reader=streaming
+	 */
+	public PoiExcelWorkbookContext getWorkbookContext() {
+		return context;
+	}
+
+	/**
+	 * @return sheet. null if reader=streaming
+	 */
 	public Sheet getSheet() {
 		return sheet;
 	}
 
+	public String getSheetName() {
+		return sheetName;
+	}
+
+	public int getSheetIndex() {
+		return sheetIndex;
+	}
+
+	/**
+	 * @return true if the workbook uses 1904 date system
+	 */
+	public boolean isDate1904() {
+		return date1904;
+	}
+
 	public PageBuilder getPageBuilder() {
 		return pageBuilder;
 	}
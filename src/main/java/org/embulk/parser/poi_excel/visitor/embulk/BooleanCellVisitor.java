@@ -37,8 +37,7 @@ public class BooleanCellVisitor extends CellVisitor {
 
 	@Override
 	public void visitSheetName(Column column) {
-		Sheet sheet = visitorValue.getSheet();
-		visitSheetName(column, sheet);
+		pageBuilder.setBoolean(column, visitorValue.getSheetIndex() != 0);
 	}
 
 	@Override
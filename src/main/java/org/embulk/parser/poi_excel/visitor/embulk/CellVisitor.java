@@ -10,6 +10,7 @@ import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean.ErrorStrategy;
 import org.embulk.parser.poi_excel.visitor.PoiExcelVisitorValue;
 import org.embulk.spi.Column;
 import org.embulk.spi.PageBuilder;
+import org.embulk.spi.json.JsonValue;
 
 public abstract class CellVisitor {
 
@@ -29,6 +30,13 @@ public abstract class CellVisitor {
 		pageBuilder.setNull(column);
 	}
 
+	/**
+	 * @param value JSON value of the attributes (cell_style etc.)
+	 */
+	public void visitCellValueJson(Column column, Object source, JsonValue value) {
+		visitCellValueString(column, source, value.toJson());
+	}
+
 	public abstract void visitCellValueBoolean(Column column, Object source, boolean value);
 
 	public abstract void visitCellValueError(Column column, Object source, int code);
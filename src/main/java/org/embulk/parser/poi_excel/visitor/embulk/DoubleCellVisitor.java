@@ -44,8 +44,7 @@ public class DoubleCellVisitor extends CellVisitor {
 
 	@Override
 	public void visitSheetName(Column column) {
-		Sheet sheet = visitorValue.getSheet();
-		visitSheetName(column, sheet);
+		pageBuilder.setDouble(column, visitorValue.getSheetIndex());
 	}
 
 	@Override
@@ -0,0 +1,93 @@
+package org.embulk.parser.poi_excel.visitor.embulk;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.embulk.parser.poi_excel.visitor.PoiExcelVisitorValue;
+import org.embulk.parser.poi_excel.visitor.util.PoiExcelJsonValues;
+import org.embulk.spi.Column;
+import org.embulk.spi.json.JsonBoolean;
+import org.embulk.spi.json.JsonDouble;
+import org.embulk.spi.json.JsonLong;
+import org.embulk.spi.json.JsonString;
+import org.embulk.spi.json.JsonValue;
+
+public class JsonCellVisitor extends CellVisitor {
+
+	public JsonCellVisitor(PoiExcelVisitorValue visitorValue) {
+		super(visitorValue);
+	}
+
+	@Override
+	public void visitCellValueNumeric(Column column, Object source, double value) {
+		pageBuilder.setJson(column, JsonDouble.of(value));
+	}
+
+	@Override
+	public void visitCellValueString(Column column, Object source, String value) {
+		JsonValue json;
+		try {
+			json = PoiExcelJsonValues.parse(value);
+		} catch (Exception e) {
+			doConvertError(column, value, e);
+			return;
+		}
+		pageBuilder.setJson(column, json);
+	}
+
+	@Override
+	public void visitCellValueJson(Column column, Object source, JsonValue value) {
+		pageBuilder.setJson(column, value);
+	}
+
+	@Override
+	public void visitCellValueBoolean(Column column, Object source, boolean value) {
+		pageBuilder.setJson(column, JsonBoolean.of(value));
+	}
+
+	@Override
+	public void visitCellValueError(Column column, Object source, int code) {
+		FormulaError error = FormulaError.forInt((byte) code);
+		pageBuilder.setJson(column, JsonString.of(error.getString()));
+	}
+
+	@Override
+	public void visitCellFormula(Column column, Cell cell) {
+		String formula = cell.getCellFormula();
+		if (formula == null) {
+			pageBuilder.setNull(column);
+			return;
+		}
+		pageBuilder.setJson(column, JsonString.of(formula));
+	}
+
+	@Override
+	public void visitValueLong(Column column, Object source, long value) {
+		pageBuilder.setJson(column, JsonLong.of(value));
+	}
+
+	@Override
+	public void visitSheetName(Column column) {
+		pageBuilder.setJson(column, JsonString.of(visitorValue.getSheetName()));
+	}
+
+	@Override
+	public void visitSheetName(Column column, Sheet sheet) {
+		pageBuilder.setJson(column, JsonString.of(sheet.getSheetName()));
+	}
+
+	@Override
+	public void visitRowNumber(Column column, int index1) {
+		pageBuilder.setJson(column, JsonLong.of(index1));
+	}
+
+	@Override
+	public void visitColumnNumber(Column column, int index1) {
+		pageBuilder.setJson(column, JsonLong.of(index1));
+	}
+
+	@Override
+	protected void doConvertErrorConstant(Column column, String value) throws Exception {
+		pageBuilder.setJson(column, PoiExcelJsonValues.parse(value));
+	}
+}
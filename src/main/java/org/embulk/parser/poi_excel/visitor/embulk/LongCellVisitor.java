@@ -44,8 +44,7 @@ public class LongCellVisitor extends CellVisitor {
 
 	@Override
 	public void visitSheetName(Column column) {
-		Sheet sheet = visitorValue.getSheet();
-		visitSheetName(column, sheet);
+		pageBuilder.setLong(column, visitorValue.getSheetIndex());
 	}
 
 	@Override
@@ -1,13 +1,13 @@
 package org.embulk.parser.poi_excel.visitor.embulk;
 
 import java.text.MessageFormat;
-import java.math.BigDecimal;
 
 import org.apache.poi.ss.usermodel.FormulaError;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.util.CellReference;
 import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
 import org.embulk.parser.poi_excel.visitor.PoiExcelVisitorValue;
+import org.embulk.parser.poi_excel.visitor.util.PoiExcelNumericFormatter;
 import org.embulk.spi.Column;
 
 public class StringCellVisitor extends CellVisitor {
@@ -26,19 +26,28 @@ public class StringCellVisitor extends CellVisitor {
 		String format = getNumericFormat(column);
 		if (!format.isEmpty()) {
 			try {
-				return String.format(format, value);
+				return getNumericFormatter(column, format).format(value);
 			} catch (Exception e) {
 				throw new IllegalArgumentException(MessageFormat.format(
 						"illegal String.format for double. numeric_format=\"{0}\"", format), e);
 			}
 		}
 
-		String s = BigDecimal.valueOf(value).toPlainString();
-		// MEMO: BigDecimalを使用して数値を変換する際、桁数によって末尾に.0が付加されることがあるため削除する
-		if (s.endsWith(".0")) {
-				return s.substring(0, s.length() - 2);
+		return PoiExcelNumericFormatter.toPlainString(value);
+	}
+
+	private PoiExcelNumericFormatter[] numericFormatters;
+
+	protected PoiExcelNumericFormatter getNumericFormatter(Column column, String format) {
+		if (numericFormatters == null) {
+			this.numericFormatters = new PoiExcelNumericFormatter[visitorValue.getSheetBean().getColumnBeans().size()];
+		}
+		PoiExcelNumericFormatter formatter = numericFormatters[column.getIndex()];
+		if (formatter == null || !formatter.getFormat().equals(format)) {
+			formatter = new PoiExcelNumericFormatter(format);
+			numericFormatters[column.getIndex()] = formatter;
 		}
-		return s;
+		return formatter;
 	}
 
 	protected String getNumericFormat(Column column) {
@@ -71,8 +80,7 @@ public class StringCellVisitor extends CellVisitor {
 
 	@Override
 	public void visitSheetName(Column column) {
-		Sheet sheet = visitorValue.getSheet();
-		visitSheetName(column, sheet);
+		pageBuilder.setString(column, visitorValue.getSheetName());
 	}
 
 	@Override
@@ -1,12 +1,16 @@
 package org.embulk.parser.poi_excel.visitor.embulk;
 
+import java.text.MessageFormat;
 import java.time.Instant;
-import java.util.Date;
+import java.time.ZoneId;
 
-import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.embulk.config.ConfigException;
 import org.embulk.parser.poi_excel.PoiExcelParserPlugin.PluginTask;
+import org.embulk.parser.poi_excel.bean.PoiExcelColumnBean;
 import org.embulk.parser.poi_excel.visitor.PoiExcelVisitorValue;
+import org.embulk.parser.poi_excel.visitor.util.PoiExcelSerialDate;
+import org.embulk.parser.poi_excel.visitor.util.PoiExcelTimestampCache;
 import org.embulk.spi.Column;
 import org.embulk.spi.type.TimestampType;
 import org.embulk.util.config.Config;
@@ -14,6 +18,7 @@ import org.embulk.util.config.ConfigDefault;
 import org.embulk.util.config.Task;
 import org.embulk.util.config.units.ColumnConfig;
 import org.embulk.util.config.units.SchemaConfig;
+import org.embulk.util.timestamp.LegacyDateTimeZones;
 import org.embulk.util.timestamp.TimestampFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Optional;
@@ -28,8 +33,11 @@ public class TimestampCellVisitor extends CellVisitor {
 
 	@Override
 	public void visitCellValueNumeric(Column column, Object source, double value) {
-		Date date = DateUtil.getJavaDate(value);
-		Instant instant = date.toInstant();
+		Instant instant = getSerialDate(column).toInstant(value);
+		if (instant == null) {
+			doConvertError(column, value, new IllegalArgumentException("illegal Excel date. value=" + value));
+			return;
+		}
 		pageBuilder.setTimestamp(column, instant);
 	}
 
@@ -37,8 +45,8 @@ public class TimestampCellVisitor extends CellVisitor {
 	public void visitCellValueString(Column column, Object source, String value) {
 		Instant instant;
 		try {
-			TimestampFormatter formatter = getTimestampFormatter(column);
-            instant = formatter.parse(value);
+			PoiExcelTimestampCache cache = getTimestampCache(column);
+			instant = cache.parse(value);
 		} catch (DateTimeParseException e) {
 			doConvertError(column, value, e);
 			return;
@@ -66,8 +74,8 @@ public class TimestampCellVisitor extends CellVisitor {
 
 	@Override
 	public void visitSheetName(Column column) {
-		Sheet sheet = visitorValue.getSheet();
-		visitSheetName(column, sheet);
+		doConvertError(column, visitorValue.getSheetName(), new UnsupportedOperationException(
+				"unsupported conversion sheet_name to Embulk timestamp"));
 	}
 
 	@Override
@@ -104,6 +112,57 @@ public class TimestampCellVisitor extends CellVisitor {
 		return timestampFormatters[column.getIndex()];
 	}
 
+	private PoiExcelSerialDate[] serialDates;
+
+	protected final PoiExcelSerialDate getSerialDate(Column column) {
+		if (serialDates == null) {
+			PluginTask task = visitorValue.getPluginTask();
+			serialDates = newSerialDates(task, task.getColumns(), visitorValue.isDate1904());
+		}
+		return serialDates[column.getIndex()];
+	}
+
+	// string to timestamp per column. the parse failures are cached too
+	private PoiExcelTimestampCache[] timestampCaches;
+
+	protected final PoiExcelTimestampCache getTimestampCache(Column column) {
+		if (timestampCaches == null) {
+			timestampCaches = new PoiExcelTimestampCache[visitorValue.getSheetBean().getColumnBeans().size()];
+		}
+		PoiExcelTimestampCache cache = timestampCaches[column.getIndex()];
+		if (cache == null) {
+			PoiExcelColumnBean bean = visitorValue.getColumnBean(column);
+			cache = new PoiExcelTimestampCache(getTimestampFormatter(column), bean.getTimestampCacheHitCount(),
+					bean.getTimestampCacheMissCount());
+			timestampCaches[column.getIndex()] = cache;
+		}
+		return cache;
+	}
+
+	/**
+	 * the serial date is interpreted in the timezone of the column (default_timezone if not specified).
+	 */
+	public static PoiExcelSerialDate[] newSerialDates(final PluginTask task, final SchemaConfig schema,
+			boolean date1904) {
+		final PoiExcelSerialDate[] dates = new PoiExcelSerialDate[schema.getColumnCount()];
+		int i = 0;
+		for (final ColumnConfig column : schema.getColumns()) {
+			if (column.getType() instanceof TimestampType) {
+				final TimestampColumnOptionForParsing columnOption = getConfigMapper().map(column.getOption(),
+						TimestampColumnOptionForParsing.class);
+				String zone = columnOption.getTimeZoneId().orElse(task.getDefaultTimeZoneId());
+				ZoneId zoneId = LegacyDateTimeZones.toZoneId(zone);
+				if (zoneId == null) {
+					throw new ConfigException(MessageFormat.format("illegal timezone={0} at {1}", zone, column
+							.getName()));
+				}
+				dates[i] = new PoiExcelSerialDate(date1904, zoneId);
+			}
+			i++;
+		}
+		return dates;
+	}
+
 	public static TimestampFormatter[] newTimestampColumnFormattersForParsing(final PluginTask task, final SchemaConfig schema) {
 		final TimestampFormatter[] formatters = new TimestampFormatter[schema.getColumnCount()];
 		int i = 0;
@@ -6,4 +6,11 @@ import org.apache.poi.ss.util.CellRangeAddress;
 public interface MergedRegionFinder {
 
 	public CellRangeAddress get(Sheet sheet, int rowIndex, int columnIndex);
+
+	/**
+	 * release the indexes of the sheets.
+	 *
+	 * @return number of released index entries
+	 */
+	public long clear();
 }
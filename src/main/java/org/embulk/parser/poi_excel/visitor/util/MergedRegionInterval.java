@@ -0,0 +1,200 @@
+package org.embulk.parser.poi_excel.visitor.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+/**
+ * merged region finder which indexes the regions by an interval tree of rows.
+ * <p>
+ * each region is stored once, in the highest node whose center row it covers. the regions of a node cover the same
+ * row, so they do not overlap in columns and are sorted by the first column. the memory is linear in the number of
+ * regions (not the number of covered cells or rows), and a lookup visits O(log regions) nodes with a binary search at
+ * each.
+ * </p>
+ */
+public class MergedRegionInterval implements MergedRegionFinder {
+
+	private final Map<Sheet, Index> sheetMap = new ConcurrentHashMap<>();
+
+	@Override
+	public CellRangeAddress get(Sheet sheet, int rowIndex, int columnIndex) {
+		Index index = sheetMap.get(sheet);
+		if (index == null) {
+			synchronized (sheet) {
+				index = createIndex(sheet);
+				sheetMap.put(sheet, index);
+			}
+		}
+
+		return index.get(rowIndex, columnIndex);
+	}
+
+	@Override
+	public long clear() {
+		long count = 0;
+		for (Index index : sheetMap.values()) {
+			count += index.size();
+		}
+		sheetMap.clear();
+		return count;
+	}
+
+	protected Index createIndex(Sheet sheet) {
+		int size = sheet.getNumMergedRegions();
+		List<Entry> sorted = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			sorted.add(new Entry(sheet.getMergedRegion(i), i));
+		}
+
+		// stable sort, so the earlier region is first in the same first row
+		sorted.sort(new Comparator<Entry>() {
+
+			@Override
+			public int compare(Entry e1, Entry e2) {
+				return Integer.compare(e1.region.getFirstRow(), e2.region.getFirstRow());
+			}
+		});
+
+		return new Index(createNode(sorted), size);
+	}
+
+	/**
+	 * @param sorted regions sorted by first row
+	 * @return node. null if no regions
+	 */
+	protected Node createNode(List<Entry> sorted) {
+		if (sorted.isEmpty()) {
+			return null;
+		}
+
+		// half of the regions start at the center or below, so the depth is O(log regions)
+		int center = sorted.get(sorted.size() / 2).region.getFirstRow();
+		List<Entry> left = new ArrayList<>();
+		List<Entry> right = new ArrayList<>();
+		List<Entry> covered = new ArrayList<>();
+		for (Entry entry : sorted) {
+			if (entry.region.getLastRow() < center) {
+				left.add(entry);
+			} else if (entry.region.getFirstRow() > center) {
+				right.add(entry);
+			} else {
+				covered.add(entry);
+			}
+		}
+
+		return new Node(center, covered, createNode(left), createNode(right));
+	}
+
+	protected static class Entry {
+		final CellRangeAddress region;
+		// index in the sheet. regions do not overlap in Excel, but if they do, the earlier wins
+		final int order;
+
+		Entry(CellRangeAddress region, int order) {
+			this.region = region;
+			this.order = order;
+		}
+	}
+
+	protected static class Node {
+		private final int center;
+		// regions which cover the center row, sorted by first column
+		private final CellRangeAddress[] regions;
+		private final int[] firstColumns;
+		// max of the last columns of regions[0..i]. same as the last column if the regions do not overlap
+		private final int[] maxLastColumns;
+		private final int[] orders;
+		private final Node left;
+		private final Node right;
+
+		Node(int center, List<Entry> covered, Node left, Node right) {
+			this.center = center;
+			this.left = left;
+			this.right = right;
+
+			covered.sort(new Comparator<Entry>() {
+
+				@Override
+				public int compare(Entry e1, Entry e2) {
+					int c = Integer.compare(e1.region.getFirstColumn(), e2.region.getFirstColumn());
+					if (c != 0) {
+						return c;
+					}
+					return Integer.compare(e1.order, e2.order);
+				}
+			});
+
+			this.regions = new CellRangeAddress[covered.size()];
+			this.firstColumns = new int[covered.size()];
+			this.maxLastColumns = new int[covered.size()];
+			this.orders = new int[covered.size()];
+			int maxLastColumn = -1;
+			for (int i = 0; i < covered.size(); i++) {
+				Entry entry = covered.get(i);
+				regions[i] = entry.region;
+				firstColumns[i] = entry.region.getFirstColumn();
+				maxLastColumn = Math.max(maxLastColumn, entry.region.getLastColumn());
+				maxLastColumns[i] = maxLastColumn;
+				orders[i] = entry.order;
+			}
+		}
+	}
+
+	protected static class Index {
+		private final Node root;
+		private final int size;
+
+		public Index(Node root, int size) {
+			this.root = root;
+			this.size = size;
+		}
+
+		public long size() {
+			return size;
+		}
+
+		public CellRangeAddress get(int rowIndex, int columnIndex) {
+			CellRangeAddress found = null;
+			int foundOrder = Integer.MAX_VALUE;
+			for (Node node = root; node != null;) {
+				// the first candidate is the only one unless the regions overlap
+				for (int i = floor(node.firstColumns, columnIndex); i >= 0
+						&& node.maxLastColumns[i] >= columnIndex; i--) {
+					CellRangeAddress region = node.regions[i];
+					if (node.orders[i] < foundOrder && region.isInRange(rowIndex, columnIndex)) {
+						found = region;
+						foundOrder = node.orders[i];
+					}
+				}
+
+				if (rowIndex < node.center) {
+					node = node.left;
+				} else if (rowIndex > node.center) {
+					node = node.right;
+				} else {
+					break;
+				}
+			}
+			return found;
+		}
+
+		// last index of the values which are less than or equal to the key. -1 if not exists
+		private static int floor(int[] values, int key) {
+			int i = Arrays.binarySearch(values, key);
+			if (i < 0) {
+				return -i - 2;
+			}
+			while (i + 1 < values.length && values[i + 1] == key) {
+				i++;
+			}
+			return i;
+		}
+	}
+}
@@ -17,4 +17,9 @@ public class MergedRegionList implements MergedRegionFinder {
 
 		return null;
 	}
+
+	@Override
+	public long clear() {
+		return 0;
+	}
 }
@@ -27,6 +27,18 @@ public abstract class MergedRegionMap implements MergedRegionFinder {
 		return columnMap.get(columnIndex);
 	}
 
+	@Override
+	public long clear() {
+		long count = 0;
+		for (Map<Integer, Map<Integer, CellRangeAddress>> rowMap : sheetMap.values()) {
+			for (Map<Integer, CellRangeAddress> columnMap : rowMap.values()) {
+				count += columnMap.size();
+			}
+		}
+		sheetMap.clear();
+		return count;
+	}
+
 	protected Map<Integer, Map<Integer, CellRangeAddress>> createRowMap(Sheet sheet) {
 		Map<Integer, Map<Integer, CellRangeAddress>> rowMap = newRowMap();
 
@@ -9,4 +9,9 @@ public class MergedRegionNothing implements MergedRegionFinder {
 	public CellRangeAddress get(Sheet sheet, int rowIndex, int columnIndex) {
 		return null;
 	}
+
+	@Override
+	public long clear() {
+		return 0;
+	}
 }
@@ -0,0 +1,124 @@
+package org.embulk.parser.poi_excel.visitor.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Comment;
+import org.apache.poi.ss.util.CellAddress;
+
+/**
+ * (row, column) to comment index of a sheet.
+ * <p>
+ * the addresses are packed into long and sorted, so a lookup is a binary search without boxing.
+ * </p>
+ */
+public class PoiExcelCommentIndex {
+
+	public static final PoiExcelCommentIndex EMPTY = new PoiExcelCommentIndex(new long[0], new Comment[0]);
+
+	private final long[] keys;
+	private final Comment[] comments;
+
+	private PoiExcelCommentIndex(long[] keys, Comment[] comments) {
+		this.keys = keys;
+		this.comments = comments;
+	}
+
+	public static PoiExcelCommentIndex of(Map<CellAddress, ? extends Comment> map) {
+		if (map.isEmpty()) {
+			return EMPTY;
+		}
+
+		Builder builder = new Builder(map.size());
+		for (Map.Entry<CellAddress, ? extends Comment> entry : map.entrySet()) {
+			CellAddress address = entry.getKey();
+			builder.add(address.getRow(), address.getColumn(), entry.getValue());
+		}
+		return builder.build();
+	}
+
+	static long key(int rowIndex, int columnIndex) {
+		return ((long) rowIndex << 32) | (columnIndex & 0xffffffffL);
+	}
+
+	/**
+	 * @return comment, or null if the cell has no comment
+	 */
+	public Comment get(int rowIndex, int columnIndex) {
+		int n = Arrays.binarySearch(keys, key(rowIndex, columnIndex));
+		if (n < 0) {
+			return null;
+		}
+		return comments[n];
+	}
+
+	public int size() {
+		return keys.length;
+	}
+
+	/**
+	 * builder of {@link PoiExcelCommentIndex} (the comments may be added in any order).
+	 */
+	public static class Builder {
+		private long[] keys;
+		private Comment[] comments;
+		private int size = 0;
+
+		public Builder() {
+			this(16);
+		}
+
+		public Builder(int capacity) {
+			this.keys = new long[Math.max(capacity, 1)];
+			this.comments = new Comment[keys.length];
+		}
+
+		public void add(int rowIndex, int columnIndex, Comment comment) {
+			if (size >= keys.length) {
+				this.keys = Arrays.copyOf(keys, size * 2);
+				this.comments = Arrays.copyOf(comments, size * 2);
+			}
+			keys[size] = key(rowIndex, columnIndex);
+			comments[size] = comment;
+			size++;
+		}
+
+		public PoiExcelCommentIndex build() {
+			if (size == 0) {
+				return EMPTY;
+			}
+
+			Integer[] order = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer o1, Integer o2) {
+					return Long.compare(keys[o1], keys[o2]);
+				}
+			});
+
+			long[] sortedKeys = new long[size];
+			Comment[] sortedComments = new Comment[size];
+			int n = 0;
+			for (int i = 0; i < size; i++) {
+				int j = order[i];
+				if (n > 0 && sortedKeys[n - 1] == keys[j]) {
+					// the last comment of the same cell is used (same as Map.put)
+					sortedComments[n - 1] = comments[j];
+					continue;
+				}
+				sortedKeys[n] = keys[j];
+				sortedComments[n] = comments[j];
+				n++;
+			}
+			if (n < size) {
+				sortedKeys = Arrays.copyOf(sortedKeys, n);
+				sortedComments = Arrays.copyOf(sortedComments, n);
+			}
+			return new PoiExcelCommentIndex(sortedKeys, sortedComments);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package org.embulk.parser.poi_excel.visitor.util;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.embulk.spi.json.JsonArray;
+import org.embulk.spi.json.JsonBoolean;
+import org.embulk.spi.json.JsonDouble;
+import org.embulk.spi.json.JsonLong;
+import org.embulk.spi.json.JsonNull;
+import org.embulk.spi.json.JsonObject;
+import org.embulk.spi.json.JsonString;
+import org.embulk.spi.json.JsonValue;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * conversion to {@link JsonValue} of json column.
+ */
+public class PoiExcelJsonValues {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private PoiExcelJsonValues() {
+	}
+
+	/**
+	 * @param value attribute value (null, String, Long, Boolean, Double or Map)
+	 * @return JSON value
+	 */
+	public static JsonValue of(Object value) {
+		if (value == null) {
+			return JsonNull.NULL;
+		} else if (value instanceof String) {
+			return JsonString.of((String) value);
+		} else if (value instanceof Long) {
+			return JsonLong.of((Long) value);
+		} else if (value instanceof Boolean) {
+			return JsonBoolean.of((Boolean) value);
+		} else if (value instanceof Double) {
+			return JsonDouble.of((Double) value);
+		} else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			String[] keys = new String[map.size()];
+			JsonValue[] values = new JsonValue[map.size()];
+			Iterator<? extends Map.Entry<?, ?>> i = map.entrySet().iterator();
+			for (int n = 0; n < keys.length; n++) {
+				Map.Entry<?, ?> entry = i.next();
+				keys[n] = String.valueOf(entry.getKey());
+				values[n] = of(entry.getValue());
+			}
+			return JsonObject.ofUnsafe(keys, values);
+		}
+		throw new IllegalStateException(MessageFormat.format("unsupported conversion. type={0}, value={1}", value
+				.getClass().getName(), value));
+	}
+
+	/**
+	 * @param json JSON text
+	 * @return JSON value
+	 * @throws IllegalArgumentException if the text is not a JSON value
+	 */
+	public static JsonValue parse(String json) {
+		try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+			JsonToken token = parser.nextToken();
+			if (token == null) {
+				throw new IllegalArgumentException("empty json");
+			}
+			JsonValue value = read(parser, token);
+			if (parser.nextToken() != null) {
+				throw new IllegalArgumentException(MessageFormat.format("not a json value. json={0}", json));
+			}
+			return value;
+		} catch (IOException e) {
+			throw new IllegalArgumentException(MessageFormat.format("json parse error. json={0}", json), e);
+		}
+	}
+
+	private static JsonValue read(JsonParser parser, JsonToken token) throws IOException {
+		switch (token) {
+		case VALUE_NULL:
+			return JsonNull.NULL;
+		case VALUE_TRUE:
+			return JsonBoolean.TRUE;
+		case VALUE_FALSE:
+			return JsonBoolean.FALSE;
+		case VALUE_STRING:
+			return JsonString.of(parser.getText());
+		case VALUE_NUMBER_INT:
+			if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+				return JsonDouble.of(parser.getDoubleValue());
+			}
+			return JsonLong.of(parser.getLongValue());
+		case VALUE_NUMBER_FLOAT:
+			return JsonDouble.of(parser.getDoubleValue());
+		case START_ARRAY: {
+			List<JsonValue> list = new ArrayList<>();
+			for (JsonToken t = parser.nextToken(); t != JsonToken.END_ARRAY; t = parser.nextToken()) {
+				list.add(read(parser, t));
+			}
+			return JsonArray.ofList(list);
+		}
+		case START_OBJECT: {
+			List<String> keys = new ArrayList<>();
+			List<JsonValue> values = new ArrayList<>();
+			for (JsonToken t = parser.nextToken(); t != JsonToken.END_OBJECT; t = parser.nextToken()) {
+				keys.add(parser.getCurrentName());
+				values.add(read(parser, parser.nextToken()));
+			}
+			return JsonObject.ofUnsafe(keys.toArray(new String[keys.size()]), values.toArray(new JsonValue[values
+					.size()]));
+		}
+		default:
+			throw new IllegalArgumentException(MessageFormat.format("unexpected json token={0}", token));
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package org.embulk.parser.poi_excel.visitor.util;
+
+import java.math.BigDecimal;
+import java.util.Formatter;
+
+/**
+ * numeric to string conversion of StringCellVisitor.
+ * <p>
+ * an instance holds a {@link Formatter} of numeric_format which is reused for each cell (not thread-safe).
+ * </p>
+ */
+public class PoiExcelNumericFormatter {
+
+	// integral values below this are exact in double and in long
+	private static final double LONG_LIMIT = 1e15;
+
+	private final String format;
+	private final StringBuilder buffer = new StringBuilder(32);
+	private final Formatter formatter = new Formatter(buffer);
+
+	/**
+	 * @param format format of {@link String#format(String, Object...)}
+	 */
+	public PoiExcelNumericFormatter(String format) {
+		this.format = format;
+	}
+
+	public String getFormat() {
+		return format;
+	}
+
+	/**
+	 * @return same as {@code String.format(format, value)}
+	 */
+	public String format(double value) {
+		buffer.setLength(0);
+		formatter.format(format, value);
+		return buffer.toString();
+	}
+
+	/**
+	 * @return same as {@code BigDecimal.valueOf(value).toPlainString()} without trailing ".0"
+	 */
+	public static String toPlainString(double value) {
+		double abs = Math.abs(value);
+		if (abs < LONG_LIMIT) {
+			long n = (long) value;
+			if (n == value) {
+				return Long.toString(n);
+			}
+			if (abs >= 1e-3 && abs < 1e7) {
+				// Double.toString() does not use exponent in this range
+				return Double.toString(value);
+			}
+		}
+
+		String s = BigDecimal.valueOf(value).toPlainString();
+		// MEMO: BigDecimalを使用して数値を変換する際、桁数によって末尾に.0が付加されることがあるため削除する
+		if (s.endsWith(".0")) {
+			return s.substring(0, s.length() - 2);
+		}
+		return s;
+	}
+}
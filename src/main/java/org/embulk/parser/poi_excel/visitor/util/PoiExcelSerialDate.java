@@ -0,0 +1,78 @@
+package org.embulk.parser.poi_excel.visitor.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneRules;
+
+/**
+ * converter of Excel serial date to {@link Instant}.
+ * <p>
+ * same as {@code DateUtil.getJavaDate(value, date1904, timeZone)} (days and milliseconds rounded like POI, including
+ * the 1900 leap year bug), but calculated without Date and Calendar. the fixed offset zones (UTC etc.) are calculated
+ * only by arithmetic.
+ * </p>
+ */
+public class PoiExcelSerialDate {
+
+	private static final long DAY_MILLISECONDS = 24 * 60 * 60 * 1000L;
+
+	// epoch day of the serial date 0 (1900: 1899-12-30 for the dates after 1900-03-01, 1904: 1904-01-01)
+	private static final long EPOCH_DAY_1900 = -25569;
+	private static final long EPOCH_DAY_1904 = -24107;
+
+	private final boolean date1904;
+	private final ZoneId zone;
+	private final ZoneOffset fixedOffset;
+
+	public PoiExcelSerialDate(boolean date1904, ZoneId zone) {
+		this.date1904 = date1904;
+		this.zone = zone;
+		ZoneRules rules = zone.getRules();
+		this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+	}
+
+	public boolean isDate1904() {
+		return date1904;
+	}
+
+	public ZoneId getZone() {
+		return zone;
+	}
+
+	/**
+	 * @param value serial date
+	 * @return instant. null if not valid Excel date (same as DateUtil)
+	 */
+	public Instant toInstant(double value) {
+		if (!(value > -Double.MIN_VALUE)) { // DateUtil.isValidExcelDate()
+			return null;
+		}
+
+		long wholeDays = (long) Math.floor(value);
+		long millisInDay = (long) ((value - wholeDays) * DAY_MILLISECONDS + 0.5);
+
+		long epochDay;
+		if (date1904) {
+			epochDay = EPOCH_DAY_1904 + wholeDays;
+		} else if (wholeDays < 61) {
+			// before 1900-02-29 which does not exist (Lotus 1-2-3 bug)
+			epochDay = EPOCH_DAY_1900 + wholeDays + 1;
+		} else {
+			epochDay = EPOCH_DAY_1900 + wholeDays;
+		}
+		long localMillis = epochDay * DAY_MILLISECONDS + millisInDay;
+
+		long epochSecond = Math.floorDiv(localMillis, 1000);
+		int nanos = (int) Math.floorMod(localMillis, 1000) * 1000_000;
+		if (fixedOffset != null) {
+			return Instant.ofEpochSecond(epochSecond - fixedOffset.getTotalSeconds(), nanos);
+		}
+
+		LocalDateTime local = LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.UTC);
+		// the later offset at overlap, same as Calendar
+		return ZonedDateTime.of(local, zone).withLaterOffsetAtOverlap().toInstant();
+	}
+}
@@ -0,0 +1,71 @@
+package org.embulk.parser.poi_excel.visitor.util;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.embulk.util.timestamp.TimestampFormatter;
+
+/**
+ * LRU cache of string to timestamp parsing of a column (not thread-safe).
+ * <p>
+ * the parse failures are also cached, and the same exception is returned for the same string. the hit/miss counters
+ * may be shared by the caches of the same column (row_parallelism).
+ * </p>
+ */
+public class PoiExcelTimestampCache {
+
+	public static final int DEFAULT_MAX_SIZE = 1024;
+
+	private final TimestampFormatter formatter;
+	private final Map<String, Object> map;
+
+	private final AtomicLong hitCount;
+	private final AtomicLong missCount;
+
+	public PoiExcelTimestampCache(TimestampFormatter formatter, AtomicLong hitCount, AtomicLong missCount) {
+		this(formatter, DEFAULT_MAX_SIZE, hitCount, missCount);
+	}
+
+	public PoiExcelTimestampCache(TimestampFormatter formatter, final int maxSize, AtomicLong hitCount,
+			AtomicLong missCount) {
+		this.formatter = formatter;
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.map = new LinkedHashMap<String, Object>(Math.min(maxSize, 64) * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @param value string
+	 * @return timestamp
+	 * @throws DateTimeParseException if the string cannot be parsed
+	 */
+	public Instant parse(String value) throws DateTimeParseException {
+		Object result = map.get(value);
+		if (result != null) {
+			hitCount.incrementAndGet();
+		} else {
+			missCount.incrementAndGet();
+			try {
+				result = formatter.parse(value);
+			} catch (DateTimeParseException e) {
+				result = e;
+			}
+			map.put(value, result);
+		}
+
+		if (result instanceof DateTimeParseException) {
+			throw (DateTimeParseException) result;
+		}
+		return (Instant) result;
+	}
+}
@@ -0,0 +1,54 @@
+package org.embulk.parser.poi_excel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+
+import org.embulk.parser.poi_excel.visitor.util.PoiExcelNumericFormatter;
+import org.junit.Test;
+
+public class TestPoiExcelNumericFormatter {
+
+	@Test
+	public void testToPlainString() {
+		double[] values = { 0d, -0d, 1d, -1d, 123d, -123d, 0.1, -0.1, 123.4, -456.7, 1e-3, -1e-3, 0.00099, -0.00099,
+				9999999.5, -9999999.5, 1e7, -1e7, 1e7 + 0.5, 1e15 - 1, -(1e15 - 1), 1e15, -1e15, 1e15 + 2, 1e20,
+				Long.MAX_VALUE, Long.MIN_VALUE, 1.5e-10, Double.MAX_VALUE, Double.MIN_VALUE };
+		for (double value : values) {
+			assertThat(String.valueOf(value), PoiExcelNumericFormatter.toPlainString(value), is(expected(value)));
+		}
+		assertThat(PoiExcelNumericFormatter.toPlainString(-0d), is("0"));
+		assertThat(PoiExcelNumericFormatter.toPlainString(-123d), is("-123"));
+		assertThat(PoiExcelNumericFormatter.toPlainString(0.00099), is("0.00099"));
+		assertThat(PoiExcelNumericFormatter.toPlainString(1e15), is("1000000000000000"));
+	}
+
+	// previous implementation
+	private static String expected(double value) {
+		String s = BigDecimal.valueOf(value).toPlainString();
+		if (s.endsWith(".0")) {
+			return s.substring(0, s.length() - 2);
+		}
+		return s;
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testToPlainString_nan() {
+		PoiExcelNumericFormatter.toPlainString(Double.NaN);
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testToPlainString_infinity() {
+		PoiExcelNumericFormatter.toPlainString(Double.POSITIVE_INFINITY);
+	}
+
+	@Test
+	public void testFormat() {
+		// the Formatter is reused
+		PoiExcelNumericFormatter formatter = new PoiExcelNumericFormatter("%08.3f");
+		for (double value : new double[] { 123.4, -1, 0.00099, 1e15, 2 }) {
+			assertThat(formatter.format(value), is(String.format("%08.3f", value)));
+		}
+	}
+}
@@ -74,6 +74,27 @@ public class TestPoiExcelParserPlugin {
 		assertThat(r.getAsTimestamp("timestamp"), is(timestamp));
 	}
 
+	@Theory
+	public void testTimestampTimezone(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheets", Arrays.asList("test1"));
+			parser.set("skip_header_lines", 1);
+			parser.set("default_timezone", "Europe/Helsinki");
+			parser.addColumn("timestamp", "timestamp").set("column_number", "E").set("timezone", "UTC");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(7));
+			// serial date is interpreted in the timezone of the column
+			assertThat(result.get(0).getAsTimestamp("timestamp"), is(Instant.parse("2015-10-04T00:00:00Z")));
+			assertThat(result.get(1).getAsTimestamp("timestamp"), is(Instant.parse("2015-10-05T00:00:00Z")));
+		}
+	}
+
 	@Theory
 	public void testNumericFormat(String excelFile) throws ParseException {
 		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
@@ -94,12 +115,82 @@ public class TestPoiExcelParserPlugin {
 		}
 	}
 
+	@Theory
+	public void testNumericFormat_columns(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheets", Arrays.asList("test1"));
+			parser.set("skip_header_lines", 1);
+			// the Formatter of each column is reused for the rows
+			parser.addColumn("c", "string").set("column_number", "C").set("numeric_format", "%.0f");
+			parser.addColumn("b", "string").set("column_number", "B").set("numeric_format", "%05.0f");
+			parser.addColumn("plain", "string").set("column_number", "C");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(7));
+			String[][] expected = { { "123", "00123", "123.4" }, { "457", "00456", "456.7" },
+					{ "123", "00123", "123" }, { "123.4", "123", "123.4" }, { "123", "00123", "123.4" },
+					{ "true", "true", "true" } };
+			for (int i = 0; i < expected.length; i++) {
+				EmbulkTestOutputPlugin.OutputRecord r = result.get(i);
+				assertThat(r.getAsString("c"), is(expected[i][0]));
+				assertThat(r.getAsString("b"), is(expected[i][1]));
+				assertThat(r.getAsString("plain"), is(expected[i][2]));
+			}
+		}
+	}
+
 	private void checkNumericFormat(List<EmbulkTestOutputPlugin.OutputRecord> result, int index, String s) {
 		EmbulkTestOutputPlugin.OutputRecord r = result.get(index);
 		// System.out.println(r);
 		assertThat(r.getAsString("value"), is(s));
 	}
 
+	@Theory
+	public void testFlushCount(String excelFile) throws ParseException {
+		for (String reader : Arrays.asList("user_model", "streaming")) {
+			List<EmbulkTestOutputPlugin.OutputRecord> expected = runFlushCount(excelFile, reader, null);
+			assertThat(expected.size(), is(8 + 2));
+
+			for (Integer flushCount : Arrays.asList(1, 2, 100)) {
+				List<EmbulkTestOutputPlugin.OutputRecord> result = runFlushCount(excelFile, reader, flushCount);
+				assertThat(result.size(), is(expected.size()));
+				for (int i = 0; i < result.size(); i++) {
+					EmbulkTestOutputPlugin.OutputRecord e = expected.get(i);
+					EmbulkTestOutputPlugin.OutputRecord r = result.get(i);
+					assertThat(r.getAsString("sheet"), is(e.getAsString("sheet")));
+					assertThat(r.getAsLong("row"), is(e.getAsLong("row")));
+					assertThat(r.getAsString("a"), is(e.getAsString("a")));
+				}
+			}
+		}
+	}
+
+	private List<EmbulkTestOutputPlugin.OutputRecord> runFlushCount(String excelFile, String reader,
+			Integer flushCount) {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheets", Arrays.asList("test1", "formula_replace"));
+			parser.set("reader", reader);
+			parser.set("skip_header_lines", 0);
+			if (flushCount != null) {
+				parser.set("flush_count", flushCount);
+			}
+			parser.addColumn("sheet", "string").set("value", "sheet_name");
+			parser.addColumn("row", "long").set("value", "row_number");
+			parser.addColumn("a", "string").set("column_number", "A");
+
+			URL inFile = getClass().getResource(excelFile);
+			return tester.runParser(inFile, parser);
+		}
+	}
+
 	@Theory
 	public void testRowNumber(String excelFile) throws ParseException {
 		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
@@ -140,6 +231,85 @@ public class TestPoiExcelParserPlugin {
 		assertThat(r.getAsString("col-s"), is("A"));
 	}
 
+	@Theory
+	public void testRowWindow(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "test1");
+			parser.set("skip_header_lines", 1);
+			parser.set("start_row", 3);
+			parser.set("end_row", 6);
+			parser.addColumn("row", "long").set("value", "row_number");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(4));
+			for (int i = 0; i < result.size(); i++) {
+				assertThat(result.get(i).getAsLong("row"), is((long) (i + 3)));
+			}
+		}
+
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "test1");
+			parser.set("skip_header_lines", 1);
+			parser.set("max_records", 2);
+			parser.addColumn("row", "long").set("value", "row_number");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(2));
+			assertThat(result.get(0).getAsLong("row"), is(2L));
+			assertThat(result.get(1).getAsLong("row"), is(3L));
+		}
+	}
+
+	@Theory
+	public void testEmptyRows(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "test1");
+			parser.set("skip_header_lines", 1);
+			parser.set("end_row", 7);
+			parser.set("skip_empty_rows", true);
+			parser.addColumn("row", "long").set("value", "row_number");
+			parser.addColumn("e", "string").set("column_number", "E");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(5));
+			for (int i = 0; i < result.size(); i++) {
+				assertThat(result.get(i).getAsLong("row"), is((long) (i + 2)));
+			}
+		}
+
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "test1");
+			parser.set("skip_header_lines", 1);
+			parser.set("stop_on_blank_rows", 1);
+			parser.addColumn("row", "long").set("value", "row_number");
+			parser.addColumn("e", "string").set("column_number", "E");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(5));
+			assertThat(result.get(4).getAsLong("row"), is(6L));
+		}
+	}
+
 	@Theory
 	public void test_sheets(String excelFile) throws ParseException {
 		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
@@ -43,6 +43,29 @@ public class TestPoiExcelParserPlugin_cellComment {
 		}
 	}
 
+	@Theory
+	public void testComment_streaming(String excelFile) throws ParseException {
+		if (!excelFile.endsWith(".xlsx")) {
+			return; // the comments are not supported by xls streaming reader
+		}
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "comment");
+			parser.set("reader", "streaming");
+			parser.addColumn("author", "string").set("value", "cell_comment.author");
+			parser.addColumn("comment", "string").set("value", "cell_comment.string");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(2));
+			check1(result, 0, "hishidama", "hishidama:\nmy comment");
+			check1(result, 1, null, null);
+		}
+	}
+
 	private void check1(List<EmbulkTestOutputPlugin.OutputRecord> result, int index, String author, String comment) {
 		EmbulkTestOutputPlugin.OutputRecord record = result.get(index);
 		// System.out.println(record);
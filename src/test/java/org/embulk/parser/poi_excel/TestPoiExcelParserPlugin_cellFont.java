@@ -129,4 +129,34 @@ public class TestPoiExcelParserPlugin_cellFont {
 			check2(result, 4, "black", null, null);
 		}
 	}
+
+	@Theory
+	public void testFont_json(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "style");
+			parser.addColumn("color-text", "string");
+			parser.addColumn("color-font", "json").set("column_number", "C").set("value", "cell_font")
+					.set("attribute_name", Arrays.asList("color", "bold"));
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(5));
+			check3(result, 0, "red", "{\"color\":null,\"bold\":false}");
+			check3(result, 1, "green", "{\"color\":16711680,\"bold\":true}");
+			check3(result, 2, "blue", null);
+			check3(result, 3, "white", null);
+			check3(result, 4, "black", null);
+		}
+	}
+
+	private void check3(List<EmbulkTestOutputPlugin.OutputRecord> result, int index, String colorText, String json) {
+		EmbulkTestOutputPlugin.OutputRecord record = result.get(index);
+		// System.out.println(record);
+		assertThat(record.getAsString("color-text"), is(colorText));
+		assertThat(record.getAsString("color-font"), is(json));
+	}
 }
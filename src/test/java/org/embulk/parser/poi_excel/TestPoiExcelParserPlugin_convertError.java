@@ -117,4 +117,31 @@ public class TestPoiExcelParserPlugin_convertError {
 			}
 		}
 	}
+
+	@Theory
+	public void testConvertError_cachedTimestamp(String excelFile) throws Exception {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "test1");
+			parser.set("skip_header_lines", 1);
+			// the parse failure of the same string is cached
+			parser.addColumn("t", "timestamp").set("value", "constant.abc").set("format", "%Y/%m/%d")
+					.set("on_convert_error", "constant.2000/1/1");
+			parser.addColumn("n", "timestamp").set("value", "constant.abc").set("format", "%Y/%m/%d")
+					.set("on_convert_error", "constant");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			Instant expected = Instant.ofEpochMilli(new SimpleDateFormat("yyyy/MM/dd z").parse("2000/01/01 UTC")
+					.getTime());
+			assertThat(result.size(), is(7));
+			for (EmbulkTestOutputPlugin.OutputRecord r : result) {
+				assertThat(r.getAsTimestamp("t"), is(expected));
+				assertThat(r.getAsTimestamp("n"), is(nullValue()));
+			}
+		}
+	}
 }
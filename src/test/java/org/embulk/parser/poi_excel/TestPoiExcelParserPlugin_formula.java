@@ -88,4 +88,50 @@ public class TestPoiExcelParserPlugin_formula {
 			assertThat(result.get(1).getAsString("text"), is("test2-b2"));
 		}
 	}
+
+	@Theory
+	public void testForumlaHandlingCachedThenEvaluate(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "formula_replace");
+
+			parser.addColumn("text", "string").set("formula_handling", "cached_then_evaluate");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(2));
+			assertThat(result.get(0).getAsString("text"), is("boolean"));
+			assertThat(result.get(1).getAsString("text"), is("test2-b1"));
+		}
+	}
+
+	@Theory
+	public void testForumlaReplaceCachedThenEvaluate(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "formula_replace");
+
+			ConfigSource replace0 = tester.newConfigSource();
+			replace0.set("regex", "test1");
+			replace0.set("to", "merged_cell");
+			ConfigSource replace1 = tester.newConfigSource();
+			replace1.set("regex", "B1");
+			replace1.set("to", "B${row}");
+			parser.set("formula_replace", Arrays.asList(replace0, replace1));
+
+			parser.addColumn("text", "string").set("formula_handling", "cached_then_evaluate");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(2));
+			assertThat(result.get(0).getAsString("text"), is("test3-a1"));
+			assertThat(result.get(1).getAsString("text"), is("test2-b2"));
+		}
+	}
 }
@@ -58,6 +58,11 @@ public class TestPoiExcelParserPlugin_mergedCell {
 		test(excelFile, "hash_search", true);
 	}
 
+	@Theory
+	public void testSearchMergedCell_interval(String excelFile) throws ParseException {
+		test(excelFile, "interval_search", true);
+	}
+
 	private void test(String excelFile, Object arg, boolean search) {
 		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
 			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
@@ -0,0 +1,193 @@
+package org.embulk.parser.poi_excel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.net.URL;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+import com.hishidama.embulk.tester.EmbulkPluginTester;
+import com.hishidama.embulk.tester.EmbulkTestOutputPlugin;
+import com.hishidama.embulk.tester.EmbulkTestParserConfig;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+@RunWith(Theories.class)
+public class TestPoiExcelParserPlugin_reader {
+
+	@DataPoints
+	public static String[] FILES = { "test1.xls", "test2.xlsx" };
+
+	@Theory
+	public void testStreaming(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "test1");
+			parser.set("reader", "streaming");
+			parser.set("skip_header_lines", 1);
+			parser.set("default_timezone", "Europe/Helsinki");
+			parser.addColumn("boolean", "boolean");
+			parser.addColumn("long", "long");
+			parser.addColumn("double", "double");
+			parser.addColumn("string", "string");
+			parser.addColumn("timestamp", "timestamp").set("format", "%Y/%m/%d");
+			parser.addColumn("row", "long").set("value", "row_number");
+			parser.addColumn("sheet", "string").set("value", "sheet_name");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(7));
+			check1(result, 0, true, 123L, 123.4d, "abc", "2015/10/4");
+			check1(result, 1, false, 456L, 456.7d, "def", "2015/10/5");
+			check1(result, 2, false, 123L, 123d, "456", "2015/10/6");
+			check1(result, 3, true, 123L, 123.4d, "abc", "2015/10/7");
+			check1(result, 4, true, 123L, 123.4d, "abc", "2015/10/4");
+			check1(result, 5, true, 1L, 1d, "true", null);
+			check1(result, 6, null, null, null, null, null);
+		}
+	}
+
+	@Theory
+	public void testStreaming_rowWindow(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "test1");
+			parser.set("reader", "streaming");
+			parser.set("skip_header_lines", 1);
+			parser.set("start_row", 3);
+			parser.set("end_row", 6);
+			parser.addColumn("row", "long").set("value", "row_number");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(4));
+			for (int i = 0; i < result.size(); i++) {
+				assertThat(result.get(i).getAsLong("row"), is((long) (i + 3)));
+			}
+		}
+
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "test1");
+			parser.set("reader", "streaming");
+			parser.set("skip_header_lines", 1);
+			parser.set("max_records", 2);
+			parser.addColumn("row", "long").set("value", "row_number");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(2));
+			assertThat(result.get(0).getAsLong("row"), is(2L));
+			assertThat(result.get(1).getAsLong("row"), is(3L));
+		}
+	}
+
+	@Theory
+	public void testStreaming_sharedStringsFile(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "formula_replace");
+			parser.set("reader", "streaming");
+			parser.set("shared_strings", "file");
+			parser.addColumn("a", "string").set("cell_column", "A");
+			parser.addColumn("b", "string").set("cell_column", "B");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(2));
+			assertThat(result.get(0).getAsString("a"), is("boolean"));
+			assertThat(result.get(0).getAsString("b"), is("test2-b1"));
+			assertThat(result.get(1).getAsString("a"), is("test2-b1"));
+			assertThat(result.get(1).getAsString("b"), is("test2-b2"));
+		}
+	}
+
+	private SimpleDateFormat sdf;
+	{
+		sdf = new SimpleDateFormat("yyyy/MM/dd");
+		sdf.setTimeZone(TimeZone.getTimeZone("Europe/Helsinki"));
+	}
+
+	private void check1(List<EmbulkTestOutputPlugin.OutputRecord> result, int index, Boolean b, Long l, Double d,
+			String s, String t) throws ParseException {
+		Instant timestamp = (t != null) ? Instant.ofEpochMilli(sdf.parse(t).getTime()) : null;
+
+		EmbulkTestOutputPlugin.OutputRecord r = result.get(index);
+		// System.out.println(r);
+		assertThat(r.getAsBoolean("boolean"), is(b));
+		assertThat(r.getAsLong("long"), is(l));
+		assertThat(r.getAsDouble("double"), is(d));
+		assertThat(r.getAsString("string"), is(s));
+		assertThat(r.getAsTimestamp("timestamp"), is(timestamp));
+		assertThat(r.getAsLong("row"), is((long) (index + 2)));
+		assertThat(r.getAsString("sheet"), is("test1"));
+	}
+
+	@Theory
+	public void testStreaming_formula(String excelFile) throws ParseException {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheet", "formula_replace");
+			parser.set("reader", "streaming");
+			parser.addColumn("text", "string").set("cell_column", "A");
+			parser.addColumn("formula", "string").set("cell_column", "A").set("value", "cell_formula");
+
+			URL inFile = getClass().getResource(excelFile);
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			assertThat(result.size(), is(2));
+			assertThat(result.get(0).getAsString("text"), is("boolean"));
+			assertThat(result.get(0).getAsString("formula"), is("test1!A1"));
+			assertThat(result.get(1).getAsString("text"), is("test2-b1"));
+			assertThat(result.get(1).getAsString("formula"), is("B1"));
+		}
+	}
+
+	@Theory
+	public void testStreaming_sharedFormula(String excelFile) {
+		// shared formula is written by Excel, not by POI
+		String sharedFormulaFile = excelFile.endsWith(".xlsx") ? "shared_formula.xlsx" : "shared_formula.xls";
+
+		for (String reader : Arrays.asList("user_model", "streaming")) {
+			try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+				tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+				EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+				parser.set("sheet", "shared");
+				parser.set("reader", reader);
+				parser.set("start_row", 2);
+				parser.set("end_row", 5);
+				parser.addColumn("formula", "string").set("cell_column", "A").set("value", "cell_formula");
+
+				URL inFile = getClass().getResource(sharedFormulaFile);
+				List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+				assertThat(result.size(), is(4));
+				for (int i = 0; i < result.size(); i++) {
+					assertThat(reader, result.get(i).getAsString("formula"), is("B" + (i + 2) + "*2+$B$1"));
+				}
+			}
+		}
+	}
+}
@@ -3,8 +3,13 @@ package org.embulk.parser.poi_excel;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -13,9 +18,11 @@ import java.util.Map;
 import com.hishidama.embulk.tester.EmbulkPluginTester;
 import com.hishidama.embulk.tester.EmbulkTestOutputPlugin;
 import com.hishidama.embulk.tester.EmbulkTestParserConfig;
+import org.junit.Rule;
 import org.junit.experimental.theories.DataPoints;
 import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
 @RunWith(Theories.class)
@@ -24,6 +31,9 @@ public class TestPoiExcelParserPlugin_sheets {
 	@DataPoints
 	public static String[] FILES = { "test1.xls", "test2.xlsx" };
 
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
 	@Theory
 	public void testSheets(String excelFile) throws ParseException {
 		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
@@ -123,4 +133,67 @@ public class TestPoiExcelParserPlugin_sheets {
 			assertThat(record.getAsString("name"), is("test1"));
 		}
 	}
+
+	@Theory
+	public void testSheetParallelism(String excelFile) throws ParseException {
+		List<String> expected = runSheets(excelFile, 1, 1);
+		List<String> actual = runSheets(excelFile, 3, 1);
+		assertThat(actual, is(expected));
+	}
+
+	@Theory
+	public void testSheetParallelism_files(String excelFile) throws IOException {
+		List<String> expected = new ArrayList<>();
+		expected.addAll(runSheets(excelFile, 1, 1));
+		expected.addAll(runSheets(excelFile, 1, 1));
+
+		// two input files which are matched by the path_prefix
+		File dir = tempFolder.newFolder();
+		String suffix = excelFile.substring(excelFile.lastIndexOf('.'));
+		for (String name : Arrays.asList("input1", "input2")) {
+			try (InputStream is = getClass().getResourceAsStream(excelFile)) {
+				Files.copy(is, new File(dir, name + suffix).toPath());
+			}
+		}
+		URL inFiles = new File(dir, "input").toURI().toURL();
+
+		assertThat(runSheets(inFiles, 1, 1), is(expected));
+		assertThat(runSheets(inFiles, 3, 1), is(expected));
+	}
+
+	@Theory
+	public void testRowParallelism(String excelFile) throws ParseException {
+		List<String> expected = runSheets(excelFile, 1, 1);
+		assertThat(runSheets(excelFile, 1, 3), is(expected));
+		assertThat(runSheets(excelFile, 2, 2), is(expected));
+	}
+
+	private List<String> runSheets(String excelFile, int sheetParallelism, int rowParallelism) {
+		return runSheets(getClass().getResource(excelFile), sheetParallelism, rowParallelism);
+	}
+
+	private List<String> runSheets(URL inFile, int sheetParallelism, int rowParallelism) {
+		try (EmbulkPluginTester tester = new EmbulkPluginTester()) {
+			tester.addParserPlugin(PoiExcelParserPlugin.TYPE, PoiExcelParserPlugin.class);
+
+			EmbulkTestParserConfig parser = tester.newParserConfig(PoiExcelParserPlugin.TYPE);
+			parser.set("sheets", Arrays.asList("test1", "formula_replace", "style"));
+			parser.set("sheet_parallelism", sheetParallelism);
+			parser.set("row_parallelism", rowParallelism);
+			parser.set("row_chunk_size", 2);
+			parser.set("preserve_sheet_order", true);
+			parser.set("flush_count", 1);
+			parser.addColumn("name", "string").set("value", "sheet_name");
+			parser.addColumn("row", "long").set("value", "row_number");
+			parser.addColumn("text", "string").set("cell_column", "A");
+
+			List<EmbulkTestOutputPlugin.OutputRecord> result = tester.runParser(inFile, parser);
+
+			List<String> list = new ArrayList<>();
+			for (EmbulkTestOutputPlugin.OutputRecord record : result) {
+				list.add(record.getAsString("name") + ":" + record.getAsLong("row") + ":" + record.getAsString("text"));
+			}
+			return list;
+		}
+	}
 }
@@ -0,0 +1,41 @@
+package org.embulk.parser.poi_excel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.embulk.parser.poi_excel.reader.PoiExcelSharedFormula;
+import org.junit.Test;
+
+public class TestPoiExcelSharedFormula {
+
+	@Test
+	public void testShift() {
+		// master cell A2
+		assertShift("B2*2+$B$1", 1, 0, "B3*2+$B$1");
+		assertShift("$A$1*A$1+$A1+A1", 2, 3, "$A$1*D$1+$A3+D3");
+		assertShift("SUM(A1:B3)", 5, 3, "SUM(D6:E8)");
+		assertShift("SUM(A:A)+SUM($B:C)", 0, 1, "SUM(B:B)+SUM($B:D)");
+		assertShift("SUM(1:1)+SUM($2:3)", 1, 0, "SUM(2:2)+SUM($2:4)");
+		assertShift("'My Sheet'!A1+Sheet1!B2", 1, 0, "'My Sheet'!A2+Sheet1!B3");
+		assertShift("\"A1\"&C3&'A1'!A1", 1, 0, "\"A1\"&C4&'A1'!A2");
+		assertShift("LOG10(A1)+Rate+_xlfn.CONCAT(A1,B1)", 0, 1, "LOG10(B1)+Rate+_xlfn.CONCAT(B1,C1)");
+		assertShift("IF(A1>0,TRUE,FALSE)*1.5E+3", 1, 0, "IF(A2>0,TRUE,FALSE)*1.5E+3");
+		assertShift("Table1[Col1]+[1]Sheet1!A1+ISERROR(#N/A)", 1, 0, "Table1[Col1]+[1]Sheet1!A2+ISERROR(#N/A)");
+		assertShift("AB12+ABCD1", 0, 1, "AC12+ABCD1");
+	}
+
+	@Test
+	public void testShift_wrap() {
+		// same as SharedFormula.convertSharedFormulas()
+		assertShift("A1+B2", -1, 0, "A1048576+B1");
+		assertShift("A1", 0, -1, "XFD1");
+		assertShift("SUM(A1:B3)", -1, 0, "SUM(A2:B1048576)");
+		assertShift("SUM(A1:A1048576)", 1, 0, "SUM(A1:A2)");
+	}
+
+	private static void assertShift(String formula, int rowDelta, int columnDelta, String expected) {
+		PoiExcelSharedFormula shared = new PoiExcelSharedFormula(formula, 1, 0);
+		assertThat(shared.getFormula(1, 0), is(formula));
+		assertThat(shared.getFormula(1 + rowDelta, columnDelta), is(expected));
+	}
+}